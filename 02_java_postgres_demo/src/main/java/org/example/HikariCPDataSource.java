@@ -2,27 +2,50 @@ package org.example;
 
 import com.zaxxer.hikari.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.*;
+import java.util.Locale;
+import java.util.Properties;
 
 public class HikariCPDataSource {
 
-    private static HikariConfig config = new HikariConfig();
     private static HikariDataSource ds;
 
-    static {
-        config.setJdbcUrl("jdbc:postgresql://localhost:5432/demo-praktikum");
-        config.setUsername("postgres");
-        config.setPassword("postgres");
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        ds = new HikariDataSource(config);
+    // The pool is created on first use, using the settings in database.properties
+    public static synchronized Connection getConnection() throws SQLException {
+        if (ds == null) {
+            ds = new HikariDataSource(new HikariConfig(loadProperties()));
+        }
+        return ds.getConnection();
     }
 
-    public static Connection getConnection() throws SQLException {
-        return ds.getConnection();
+    public static synchronized void close() {
+        if (ds != null) {
+            ds.close();
+            ds = null;
+        }
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = HikariCPDataSource.class.getResourceAsStream("/database.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String override = System.getenv("DEMO_DB_" + key.replace('.', '_').toUpperCase(Locale.ROOT));
+            if (override != null) {
+                properties.setProperty(key, override);
+            }
+        }
+        return properties;
     }
 
     private HikariCPDataSource() {
     }
-}
\ No newline at end of file
+}
@@ -24,6 +24,9 @@ public class PooledDatabaseConnection {
             }
         } catch (Exception e) {
             System.out.println(e);
+        } finally {
+            // Close the pool so the program can exit
+            HikariCPDataSource.close();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.bdsqltester.bench;
+
+import com.example.bdsqltester.grading.AnswerKeyCache;
+import com.example.bdsqltester.grading.ComparisonMode;
+import com.example.bdsqltester.grading.SqlNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Pekerjaan per submission sebelum query dijalankan: menentukan mode perbandingan dan kunci cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerKeyBenchmark {
+    private final String answer = """
+            SELECT e.first_name, e.last_name, d.department_name
+            FROM employees e
+                JOIN departments d ON e.department_id = d.department_id
+            WHERE e.salary > 10000
+            ORDER BY e.last_name, e.first_name
+            """;
+
+    @Benchmark
+    public ComparisonMode comparisonMode() {
+        return ComparisonMode.forAnswerKey(answer);
+    }
+
+    @Benchmark
+    public AnswerKeyCache.Key cacheKey() {
+        return AnswerKeyCache.key(1, answer);
+    }
+
+    @Benchmark
+    public String submissionFingerprint() {
+        return SqlNormalizer.fingerprint(answer);
+    }
+}
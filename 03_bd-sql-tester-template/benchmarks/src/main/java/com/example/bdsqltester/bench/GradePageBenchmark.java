@@ -0,0 +1,37 @@
+package com.example.bdsqltester.bench;
+
+import com.example.bdsqltester.dtos.Grade;
+import com.example.bdsqltester.repositories.GradeRepository;
+import com.example.bdsqltester.services.GradeReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membaca satu halaman nilai lewat GradeRepository terhadap database sql-tester lokal (postgres-docker).
+ * Assignment yang dipakai diatur lewat -Dbench.assignmentId; jalankan dengan -prof gc untuk melihat alokasi per baris.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradePageBenchmark {
+    private final long assignmentId = Long.getLong("bench.assignmentId", 1L);
+
+    @Benchmark
+    public List<Grade> findPage() throws SQLException {
+        return GradeRepository.findPage(assignmentId, Long.MIN_VALUE, GradeReport.PAGE_SIZE);
+    }
+}
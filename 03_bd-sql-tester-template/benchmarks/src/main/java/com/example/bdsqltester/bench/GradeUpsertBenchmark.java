@@ -0,0 +1,37 @@
+package com.example.bdsqltester.bench;
+
+import com.example.bdsqltester.services.GradeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upsert nilai terhadap database sql-tester lokal (postgres-docker). Assignment dan user yang dipakai diatur
+ * lewat -Dbench.assignmentId dan -Dbench.userId; setiap iterasi menambah satu baris ke tabel submissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class GradeUpsertBenchmark {
+    private final long assignmentId = Long.getLong("bench.assignmentId", 1L);
+    private final long userId = Long.getLong("bench.userId", 1L);
+
+    @Benchmark
+    public double saveSubmission() throws SQLException {
+        return GradeStore.saveSubmission(assignmentId, userId, "SELECT 1", 0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.bdsqltester.bench;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.grading.GradingEngine;
+import com.example.bdsqltester.grading.GradingResult;
+import com.example.bdsqltester.grading.GradingScheduler;
+import com.example.bdsqltester.services.GradeStore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mensimulasikan banyak mahasiswa yang submit bersamaan ke database lokal (postgres-docker), melewati jalur
+ * yang sama dengan tombol Submit: GradingScheduler, GradingEngine, lalu GradeStore.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.bdsqltester.bench.LoadGenerator \
+ *     --assignment 1 --students 40 --submissions 20 [--answer "SELECT ..."]
+ * </pre>
+ *
+ * Tanpa --answer, kunci jawaban assignment itu sendiri yang dikirim. Mahasiswa diambil dari tabel users
+ * dengan role 'user' dan dipakai bergiliran jika jumlahnya kurang dari --students.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        long assignmentId = Long.parseLong(options.getOrDefault("assignment", "1"));
+        int students = Integer.parseInt(options.getOrDefault("students", "40"));
+        int submissions = Integer.parseInt(options.getOrDefault("submissions", "10"));
+
+        String answerKey = loadAnswerKey(assignmentId);
+        String answer = options.getOrDefault("answer", answerKey);
+        List<Long> userIds = loadUserIds(students);
+        if (userIds.isEmpty()) {
+            throw new IllegalStateException("Tidak ada user dengan role 'user' di database.");
+        }
+
+        long[] latencies = new long[students * submissions];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < students; s++) {
+                long userId = userIds.get(s % userIds.size());
+                clients.submit(() -> {
+                    for (int i = 0; i < submissions; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            GradingScheduler.submit(() -> {
+                                GradingResult result = GradingEngine.grade(assignmentId, answerKey, answer);
+                                return GradeStore.saveSubmission(assignmentId, userId, answer, result.getGrade());
+                            }).join();
+                            latencies[completed.getAndIncrement()] = System.nanoTime() - begin;
+                        } catch (CompletionException e) {
+                            if (e.getCause() instanceof RejectedExecutionException) {
+                                rejected.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        GradingScheduler.shutdown();
+
+        long[] done = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(done);
+        double seconds = elapsed / 1e9;
+        System.out.printf("Selesai: %d, ditolak: %d, gagal: %d dalam %.2f detik%n", done.length, rejected.get(), failed.get(), seconds);
+        System.out.printf("Throughput: %.1f submission/detik%n", done.length / seconds);
+        if (done.length > 0) {
+            System.out.printf("Latensi p50: %d ms, p99: %d ms, maks: %d ms%n",
+                    millis(percentile(done, 0.50)), millis(percentile(done, 0.99)), millis(done[done.length - 1]));
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static String loadAnswerKey(long assignmentId) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT answer_key FROM assignments WHERE id = ?")) {
+            stmt.setLong(1, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalArgumentException("Assignment " + assignmentId + " tidak ditemukan.");
+                }
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static List<Long> loadUserIds(int limit) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT id FROM users WHERE role = 'user' ORDER BY id LIMIT ?")) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Argumen tidak dikenal: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bdsqltester.bench;
+
+import com.example.bdsqltester.grading.ResultFingerprint;
+import com.example.bdsqltester.services.ResultBuffer;
+import com.example.bdsqltester.services.ResultBuffer.Kind;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Biaya membandingkan dua hasil tanpa urutan lewat sidik jari dari ResultBuffer, tanpa database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultComparisonBenchmark {
+    @Param({"100", "10000"})
+    private int rows;
+
+    private static final String[] COLUMNS = {"id", "name", "salary", "hire_date"};
+    private static final Kind[] KINDS = {Kind.INTEGER, Kind.TEXT, Kind.DECIMAL, Kind.DATE};
+
+    private ResultBuffer expected;
+    private ResultBuffer actual;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String[]> expectedRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            expectedRows.add(new String[]{
+                    String.valueOf(100 + i),
+                    "Employee" + random.nextInt(1000),
+                    random.nextInt(20000) + ".00",
+                    String.format("2024-01-%02d", 1 + random.nextInt(28))
+            });
+        }
+        List<String[]> actualRows = new ArrayList<>(expectedRows);
+        Collections.shuffle(actualRows, random);
+        expected = buffer(expectedRows);
+        actual = buffer(actualRows);
+    }
+
+    @Benchmark
+    public boolean unorderedFingerprint() {
+        return fingerprint(expected).equals(fingerprint(actual));
+    }
+
+    private static ResultBuffer buffer(List<String[]> rows) {
+        ResultBuffer buffer = new ResultBuffer(COLUMNS, KINDS, rows.size());
+        for (String[] row : rows) {
+            buffer.appendRow(row);
+        }
+        return buffer;
+    }
+
+    private static ResultFingerprint fingerprint(ResultBuffer rows) {
+        ResultFingerprint fingerprint = new ResultFingerprint(rows.getColumnCount());
+        for (int row = 0; row < rows.size(); row++) {
+            fingerprint.addRow(rows, row);
+        }
+        return fingerprint;
+    }
+}
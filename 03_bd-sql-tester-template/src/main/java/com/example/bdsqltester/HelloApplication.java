@@ -1,5 +1,17 @@
 package com.example.bdsqltester;
 
+import com.example.bdsqltester.client.GradingClient;
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.datasources.PoolFactory;
+import com.example.bdsqltester.datasources.SchemaMigrator;
+import com.example.bdsqltester.grading.GradingScheduler;
+import com.example.bdsqltester.grading.SandboxSchemas;
+import com.example.bdsqltester.metrics.MetricsServer;
+import com.example.bdsqltester.server.GradingServer;
+import com.example.bdsqltester.services.AssignmentCatalog;
+import com.example.bdsqltester.services.AuthService;
+import com.example.bdsqltester.services.LocalEngine;
+import com.example.bdsqltester.services.QueryExecutionService;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -8,17 +20,54 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
 
 public class HelloApplication extends Application {
+    private static final Logger log = LoggerFactory.getLogger(HelloApplication.class);
+
+    private static final String SERVER_URL = System.getProperty("bdsqltester.server.url");
+
     private static HelloApplication applicationInstance;
     private Stage primaryStage;
+    private GradingServer embeddedServer;
     public static HelloApplication getApplicationInstance () { return applicationInstance; }
     public Stage getPrimaryStage () { return primaryStage; }
 
+    @Override
+    public void init() {
+        if (SERVER_URL != null) {
+            return;
+        }
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException | RuntimeException | ExceptionInInitializerError e) {
+            log.error("Schema migration failed", e);
+        }
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
         HelloApplication.applicationInstance = this;
-
+        if (SERVER_URL == null) {
+            embeddedServer = new GradingServer("127.0.0.1", 0);
+            embeddedServer.start();
+            GradingClient.connect("http://127.0.0.1:" + embeddedServer.getPort(), false);
+            Thread.ofVirtual().name("main-pool-warmup").start(() -> {
+                try {
+                    MainDataSource.warmUp();
+                } catch (Exception e) {
+                    log.warn("Main pool warm-up failed: {}", e.getMessage());
+                }
+            });
+        } else {
+            GradingClient.connect(SERVER_URL, true);
+        }
+        QueryExecutionService.warmUp();
+        MetricsServer.start();
+        if (Boolean.parseBoolean(System.getProperty("bdsqltester.sandbox.prepareOnStartup", "false"))) {
+            SandboxSchemas.start();
+        }
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("login-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load());
         primaryStage = stage;
@@ -28,7 +77,26 @@ public class HelloApplication extends Application {
         stage.show();
     }
 
-    public static void main(String[] args) {
-        launch();
+    @Override
+    public void stop() {
+        GradingClient.shutdown();
+        if (embeddedServer != null) {
+            embeddedServer.stop();
+        }
+        AssignmentCatalog.shutdown();
+        GradingScheduler.shutdown();
+        AuthService.shutdown();
+        MetricsServer.stop();
+        SandboxSchemas.shutdown();
+        LocalEngine.shutdown();
+        PoolFactory.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--server")) {
+            GradingServer.main(args);
+            return;
+        }
+        launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.example.bdsqltester.client;
+
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import com.example.bdsqltester.dtos.Grade;
+import com.example.bdsqltester.dtos.User;
+import com.example.bdsqltester.grading.GradingResult;
+import com.example.bdsqltester.services.AssignmentCatalog;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.GradeReport;
+import com.example.bdsqltester.services.Json;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.SubmissionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GradingClient {
+    private static final Logger log = LoggerFactory.getLogger(GradingClient.class);
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(Long.getLong("bdsqltester.client.timeoutSeconds", 120L));
+    private static final long CATALOG_POLL_SECONDS = Long.getLong("bdsqltester.client.catalogPollSeconds", 15L);
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private static volatile URI baseUri;
+    private static volatile String token;
+    private static volatile List<AssignmentSummary> catalog = List.of();
+    private static ScheduledExecutorService poller;
+
+    private GradingClient() {
+    }
+
+    public static synchronized void connect(String url, boolean pollCatalog) {
+        baseUri = URI.create(url.endsWith("/") ? url : url + "/");
+        AssignmentCatalog.addListener(GradingClient::refreshCatalogQuietly);
+        if (pollCatalog && poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("catalog-poll").factory());
+            poller.scheduleWithFixedDelay(GradingClient::refreshCatalogQuietly, CATALOG_POLL_SECONDS, CATALOG_POLL_SECONDS, TimeUnit.SECONDS);
+        }
+        log.info("Using grading server at {}", baseUri);
+    }
+
+    public static synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    public static Optional<User> login(String username, String password, String role) throws SQLException {
+        HttpResponse<String> response = send(request("api/login")
+                .POST(json(Json.object("username", username, "password", password, "role", role))));
+        if (response.statusCode() == 401) {
+            return Optional.empty();
+        }
+        Map<String, Object> body = object(check(response));
+        token = (String) body.get("token");
+        setCatalog(summaries(body.get("assignments")));
+        return Optional.of(new User(number(body, "userId").longValue(), (String) body.get("username")));
+    }
+
+    public static List<AssignmentSummary> summaries() {
+        return catalog;
+    }
+
+    public static void refreshCatalog() throws SQLException {
+        setCatalog(summaries(get("api/assignments")));
+    }
+
+    public static void addCatalogListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeCatalogListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public static Assignment details(long assignmentId) throws SQLException {
+        Map<String, Object> body = object(get("api/assignments/" + assignmentId));
+        return new Assignment(number(body, "id").longValue(), (String) body.get("name"),
+                (String) body.get("instructions"), (String) body.get("answerKey"));
+    }
+
+    public static CompletableFuture<SubmissionService.Submission> submit(long assignmentId, String answer) {
+        CompletableFuture<SubmissionService.Submission> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("submission").start(() -> {
+            try {
+                Map<String, Object> body = object(check(send(request("api/assignments/" + assignmentId + "/submissions")
+                        .POST(json(Json.object("answer", answer))))));
+                GradingResult result = new GradingResult(number(body, "grade").doubleValue(), (String) body.get("message"));
+                future.complete(new SubmissionService.Submission(result, number(body, "bestGrade").doubleValue()));
+            } catch (SQLException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public static OptionalDouble grade(long assignmentId) throws SQLException {
+        Object grade = object(get("api/assignments/" + assignmentId + "/grade")).get("grade");
+        return grade == null ? OptionalDouble.empty() : OptionalDouble.of(((Number) grade).doubleValue());
+    }
+
+    public static GradeReport.Statistics statistics(long assignmentId) throws SQLException {
+        Map<String, Object> body = object(get("api/assignments/" + assignmentId + "/statistics"));
+        List<?> buckets = (List<?>) body.get("histogram");
+        long[] histogram = new long[buckets.size()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = ((Number) buckets.get(i)).longValue();
+        }
+        return new GradeReport.Statistics(number(body, "count").longValue(), number(body, "mean").doubleValue(),
+                number(body, "min").doubleValue(), number(body, "max").doubleValue(),
+                new double[]{number(body, "p25").doubleValue(), number(body, "median").doubleValue(),
+                        number(body, "p75").doubleValue(), number(body, "p90").doubleValue()},
+                histogram);
+    }
+
+    public static GradeReport.Page gradesAfter(long assignmentId, long afterUserId) throws SQLException {
+        String path = "api/assignments/" + assignmentId + "/grades" + (afterUserId == Long.MIN_VALUE ? "" : "?after=" + afterUserId);
+        Map<String, Object> body = object(get(path));
+        List<Grade> rows = new ArrayList<>();
+        for (Object row : (List<?>) body.get("rows")) {
+            Map<String, Object> grade = object(row);
+            rows.add(new Grade(number(grade, "userId").longValue(), assignmentId, (String) grade.get("username"),
+                    number(grade, "grade").doubleValue()));
+        }
+        return new GradeReport.Page(rows, Boolean.TRUE.equals(body.get("exhausted")));
+    }
+
+    public static long importUsers(Path csv) throws SQLException {
+        return importCsv("api/users/import", csv);
+    }
+
+    public static long importAssignments(Path csv) throws SQLException {
+        long imported = importCsv("api/assignments/import", csv);
+        refreshCatalogQuietly();
+        return imported;
+    }
+
+    public static void exportGrades(Path csv) throws SQLException {
+        HttpResponse<Object> response = send(request("api/grades.csv").GET(), info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofFile(csv), file -> file)
+                : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), text -> text));
+        if (response.statusCode() != 200) {
+            throw error(response.statusCode(), (String) response.body());
+        }
+    }
+
+    private static long importCsv(String path, Path csv) throws SQLException {
+        HttpRequest.BodyPublisher body;
+        try {
+            body = HttpRequest.BodyPublishers.ofFile(csv);
+        } catch (IOException e) {
+            throw new SQLException("File " + csv.getFileName() + " tidak dapat dibaca: " + e.getMessage(), e);
+        }
+        HttpResponse<String> response = send(request(path).header("Content-Type", "text/csv; charset=utf-8").POST(body));
+        return number(object(check(response)), "imported").longValue();
+    }
+
+    private static void refreshCatalogQuietly() {
+        if (token == null) {
+            return;
+        }
+        try {
+            refreshCatalog();
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Refreshing assignment list failed: {}", e.getMessage());
+        }
+    }
+
+    private static void setCatalog(List<AssignmentSummary> fresh) {
+        List<AssignmentSummary> previous = catalog;
+        catalog = List.copyOf(fresh);
+        if (!sameCatalog(previous, fresh)) {
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+    }
+
+    private static boolean sameCatalog(List<AssignmentSummary> a, List<AssignmentSummary> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).getId() != b.get(i).getId() || !a.get(i).getName().equals(b.get(i).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<AssignmentSummary> summaries(Object list) {
+        List<AssignmentSummary> summaries = new ArrayList<>();
+        for (Object item : (List<?>) list) {
+            Map<String, Object> summary = object(item);
+            summaries.add(new AssignmentSummary(number(summary, "id").longValue(), (String) summary.get("name")));
+        }
+        return summaries;
+    }
+
+    private static Object get(String path) throws SQLException {
+        return check(send(request(path).GET()));
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        String current = token;
+        if (current != null) {
+            builder.header("Authorization", "Bearer " + current);
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        return HttpRequest.BodyPublishers.ofString(Json.write(body), StandardCharsets.UTF_8);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws SQLException {
+        return send(request.header("Accept", "application/json"), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private static <T> HttpResponse<T> send(HttpRequest.Builder request, HttpResponse.BodyHandler<T> handler) throws SQLException {
+        try {
+            return http.send(request.build(), handler);
+        } catch (IOException e) {
+            throw new SQLException("Server penilaian tidak dapat dihubungi: " + e.getMessage(), "08001", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Permintaan ke server penilaian dihentikan.", "08001", e);
+        }
+    }
+
+    private static Object check(HttpResponse<String> response) throws SQLException {
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            throw error(status, response.body());
+        }
+        String body = response.body();
+        return body == null || body.isEmpty() ? null : Json.parse(body);
+    }
+
+    private static SQLException error(int status, String body) {
+        Map<String, Object> error = Map.of();
+        try {
+            if (Json.parse(body) instanceof Map<?, ?> parsed) {
+                error = object(parsed);
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        String message = error.get("error") instanceof String text ? text : "Server penilaian membalas HTTP " + status + ".";
+        if (status == 503) {
+            throw new RejectedExecutionException(message);
+        }
+        if (status == 409 && error.get("limit") instanceof String limit) {
+            return new LimitExceededException(ExecutionLimits.Limit.valueOf(limit), message);
+        }
+        return new SQLException(message);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private static Number number(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        return value == null ? 0 : (Number) value;
+    }
+}
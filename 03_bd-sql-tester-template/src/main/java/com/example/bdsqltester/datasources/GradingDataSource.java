@@ -1,28 +1,44 @@
 package com.example.bdsqltester.datasources;
 
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class GradingDataSource {
 
-    private static HikariConfig config = new HikariConfig();
-    private static HikariDataSource ds;
-
-    static {
-        config.setJdbcUrl("jdbc:postgresql://localhost:5432/oracle_hr");
-        config.setUsername("readonly_grader");
-        config.setPassword("readonly_grader");
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        ds = new HikariDataSource(config);
-    }
+    private static final String POOL = "grading";
 
     public static Connection getConnection() throws SQLException {
-        return ds.getConnection();
+        return PoolFactory.get(POOL).getConnection();
+    }
+
+    public static void warmUp() throws SQLException {
+        HikariDataSource ds = PoolFactory.get(POOL);
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < ds.getMinimumIdle(); i++) {
+                connections.add(ds.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    public static boolean hasSpareConnection() throws SQLException {
+        HikariDataSource ds = PoolFactory.get(POOL);
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool.getThreadsAwaitingConnection() == 0
+                && (pool.getIdleConnections() > 0 || pool.getTotalConnections() < ds.getMaximumPoolSize());
+    }
+
+    public static HikariPoolMXBean getPoolStats() throws SQLException {
+        return PoolFactory.get(POOL).getHikariPoolMXBean();
     }
 
     private GradingDataSource() {
@@ -0,0 +1,51 @@
+package com.example.bdsqltester.datasources;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public class LocalDataSource {
+    private static final String URL = System.getProperty("bdsqltester.local.url",
+            "jdbc:h2:mem:bdsqltester_local;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+    private static final String OWNER = "sa";
+    private static final String READER = "reader";
+    private static final String READER_PASSWORD = "reader";
+
+    public static boolean isDriverAvailable() {
+        try {
+            DriverManager.getDriver(URL);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public static Connection getOwnerConnection() throws SQLException {
+        return DriverManager.getConnection(URL, OWNER, "");
+    }
+
+    public static Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(URL, READER, READER_PASSWORD);
+    }
+
+    public static void grantReader(Connection owner, List<String> quotedTables) throws SQLException {
+        try (Statement stmt = owner.createStatement()) {
+            stmt.execute("CREATE USER IF NOT EXISTS " + READER + " PASSWORD '" + READER_PASSWORD + "'");
+            for (String table : quotedTables) {
+                stmt.execute("GRANT SELECT ON " + table + " TO " + READER);
+            }
+        }
+    }
+
+    public static void shutdown() throws SQLException {
+        try (Connection connection = getOwnerConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+    }
+
+    private LocalDataSource() {
+    }
+}
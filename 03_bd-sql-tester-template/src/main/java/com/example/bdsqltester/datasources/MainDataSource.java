@@ -3,24 +3,32 @@ package com.example.bdsqltester.datasources;
 import com.zaxxer.hikari.*;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MainDataSource {
 
-    private static HikariConfig config = new HikariConfig();
-    private static HikariDataSource ds;
-
-    static {
-        config.setJdbcUrl("jdbc:postgresql://localhost:5432/sql-tester");
-        config.setUsername("postgres");
-        config.setPassword("postgres");
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        ds = new HikariDataSource(config);
-    }
+    private static final String POOL = "main";
 
     public static Connection getConnection() throws SQLException {
-        return ds.getConnection();
+        return PoolFactory.get(POOL).getConnection();
+    }
+
+    public static void warmUp() throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < Integer.getInteger("bdsqltester.main.pool.warmUpConnections", 2); i++) {
+                connections.add(getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    public static HikariPoolMXBean getPoolStats() throws SQLException {
+        return PoolFactory.get(POOL).getHikariPoolMXBean();
     }
 
     private MainDataSource() {
@@ -0,0 +1,158 @@
+package com.example.bdsqltester.datasources;
+
+import com.example.bdsqltester.metrics.PoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PoolFactory {
+    private static final Logger log = LoggerFactory.getLogger(PoolFactory.class);
+
+    private static final String DEFAULTS = "/com/example/bdsqltester/datasources.properties";
+    private static final String DATA_SOURCE_PREFIX = "dataSource.";
+
+    private static final Properties settings = loadSettings();
+    private static final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+    private static boolean closed;
+
+    private PoolFactory() {
+    }
+
+    public static HikariDataSource get(String name) throws SQLException {
+        HikariDataSource ds = pools.get(name);
+        if (ds != null) {
+            return ds;
+        }
+        synchronized (PoolFactory.class) {
+            if (closed) {
+                throw new SQLException("Pool " + name + " sudah ditutup.");
+            }
+            ds = pools.get(name);
+            if (ds == null) {
+                try {
+                    ds = new HikariDataSource(config(name));
+                } catch (HikariPool.PoolInitializationException e) {
+                    throw new SQLException("Pool " + name + " tidak dapat dibuat: " + e.getMessage(), e);
+                }
+                pools.put(name, ds);
+                log.info("Started pool {} (max {}, min idle {})", name, ds.getMaximumPoolSize(), ds.getMinimumIdle());
+            }
+            return ds;
+        }
+    }
+
+    public static synchronized void shutdown() {
+        closed = true;
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            entry.getValue().close();
+            log.info("Closed pool {}", entry.getKey());
+        }
+        pools.clear();
+    }
+
+    static HikariConfig config(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(required(name, "jdbcUrl"));
+        config.setUsername(setting(name, "username"));
+        config.setPassword(setting(name, "password"));
+
+        String value;
+        if ((value = setting(name, "maximumPoolSize")) != null) {
+            config.setMaximumPoolSize(Integer.parseInt(value));
+        }
+        if ((value = setting(name, "minimumIdle")) != null) {
+            config.setMinimumIdle(Integer.parseInt(value));
+        }
+        if ((value = setting(name, "connectionTimeout")) != null) {
+            config.setConnectionTimeout(Long.parseLong(value));
+        }
+        if ((value = setting(name, "validationTimeout")) != null) {
+            config.setValidationTimeout(Long.parseLong(value));
+        }
+        if ((value = setting(name, "idleTimeout")) != null) {
+            config.setIdleTimeout(Long.parseLong(value));
+        }
+        if ((value = setting(name, "maxLifetime")) != null) {
+            config.setMaxLifetime(Long.parseLong(value));
+        }
+        if ((value = setting(name, "leakDetectionThreshold")) != null) {
+            config.setLeakDetectionThreshold(Long.parseLong(value));
+        }
+        if ((value = setting(name, "connectionTestQuery")) != null) {
+            config.setConnectionTestQuery(value);
+        }
+
+        String prefix = name + "." + DATA_SOURCE_PREFIX;
+        for (String key : settings.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                String property = key.substring(prefix.length());
+                config.addDataSourceProperty(property, setting(name, DATA_SOURCE_PREFIX + property));
+            }
+        }
+        String systemPrefix = "bdsqltester." + name + ".pool." + DATA_SOURCE_PREFIX;
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(systemPrefix)) {
+                config.addDataSourceProperty(key.substring(systemPrefix.length()), System.getProperty(key));
+            }
+        }
+
+        config.setMetricsTrackerFactory(new PoolMetrics());
+        return config;
+    }
+
+    private static String setting(String pool, String key) {
+        String value = System.getProperty("bdsqltester." + pool + ".pool." + key);
+        if (value == null) {
+            value = System.getenv(("BDSQLTESTER_" + pool + "_" + key).replace('.', '_').toUpperCase(Locale.ROOT));
+        }
+        if (value == null) {
+            value = settings.getProperty(pool + "." + key);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String required(String pool, String key) {
+        String value = setting(pool, key);
+        if (value == null) {
+            throw new IllegalStateException("Missing datasource setting " + pool + "." + key);
+        }
+        return value;
+    }
+
+    private static Properties loadSettings() {
+        Properties properties = new Properties();
+        try (InputStream in = PoolFactory.class.getResourceAsStream(DEFAULTS)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String external = System.getProperty("bdsqltester.config", System.getenv("BDSQLTESTER_CONFIG"));
+        if (external != null) {
+            Path path = Path.of(external);
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+                log.info("Loaded datasource settings from {}", path.toAbsolutePath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read datasource settings from " + path, e);
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bdsqltester.datasources;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class SandboxDataSource {
+
+    private static final String POOL = "sandbox";
+
+    public static Connection getConnection() throws SQLException {
+        return PoolFactory.get(POOL).getConnection();
+    }
+
+    private SandboxDataSource() {
+    }
+}
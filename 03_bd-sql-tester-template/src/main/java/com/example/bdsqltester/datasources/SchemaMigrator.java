@@ -0,0 +1,77 @@
+package com.example.bdsqltester.datasources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public class SchemaMigrator {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__submissions.sql",
+            "V2__grades_unique.sql",
+            "V3__assignments_notify.sql",
+            "V4__users_password_text.sql",
+            "V5__grades_notify.sql",
+            "V6__submissions_submitted_at.sql"
+    );
+    private static final long LOCK_KEY = 0x5C_4E_4D_41L;
+
+    private SchemaMigrator() {
+    }
+
+    public static void migrate() throws SQLException {
+        try (Connection connection = MainDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations (version TEXT PRIMARY KEY, applied_at TIMESTAMPTZ NOT NULL DEFAULT now())");
+
+                for (String migration : MIGRATIONS) {
+                    if (isApplied(connection, migration)) {
+                        continue;
+                    }
+                    log.info("Applying schema migration {}", migration);
+                    stmt.execute(readScript(migration));
+                    try (PreparedStatement insert = connection.prepareStatement("INSERT INTO schema_migrations (version) VALUES (?)")) {
+                        insert.setString(1, migration);
+                        insert.executeUpdate();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isApplied(Connection connection, String migration) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM schema_migrations WHERE version = ?")) {
+            stmt.setString(1, migration);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static String readScript(String migration) throws SQLException {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("/com/example/bdsqltester/db/" + migration)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found: " + migration);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read migration " + migration, e);
+        }
+    }
+}
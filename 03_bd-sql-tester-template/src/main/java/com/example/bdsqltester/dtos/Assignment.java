@@ -1,8 +1,5 @@
 package com.example.bdsqltester.dtos;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 public class Assignment {
     public long id;
     public String name;
@@ -16,11 +13,20 @@ public class Assignment {
         this.answerKey = answerKey;
     }
 
-    public Assignment(ResultSet rs) throws SQLException {
-        this.id = rs.getLong("id");
-        this.name = rs.getString("name");
-        this.instructions = rs.getString("instructions");
-        this.answerKey = rs.getString("answer_key");
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getInstructions() {
+        return instructions;
+    }
+
+    public String getAnswerKey() {
+        return answerKey;
     }
 
     @Override
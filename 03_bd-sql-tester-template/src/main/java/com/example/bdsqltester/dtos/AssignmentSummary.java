@@ -0,0 +1,24 @@
+package com.example.bdsqltester.dtos;
+
+public class AssignmentSummary {
+    private long id;
+    private String name;
+
+    public AssignmentSummary(long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
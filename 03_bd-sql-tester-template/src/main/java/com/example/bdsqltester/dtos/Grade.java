@@ -1,22 +1,31 @@
 package com.example.bdsqltester.dtos;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 public class Grade {
     public long userId;
     public long assignmentId;
+    public String username;
     public double grade;
 
-    public Grade(long userId, long assignmentId, double grade) {
+    public Grade(long userId, long assignmentId, String username, double grade) {
         this.userId = userId;
         this.assignmentId = assignmentId;
+        this.username = username;
         this.grade = grade;
     }
 
-    public Grade(ResultSet rs) throws SQLException {
-        this.userId = rs.getLong("user_id");
-        this.assignmentId = rs.getLong("assignment_id");
-        this.grade = rs.getDouble("grade");
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getAssignmentId() {
+        return assignmentId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public double getGrade() {
+        return grade;
     }
 }
@@ -0,0 +1,55 @@
+package com.example.bdsqltester.grading;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AnswerKeyCache {
+    public static final String SCHEMA_VERSION = System.getProperty("bdsqltester.grading.schemaVersion", "1");
+    private static final int MAX_ENTRIES = Integer.getInteger("bdsqltester.grading.answerKeyCacheSize", 64);
+
+    private static final Map<Key, ExpectedResult> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ExpectedResult> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public record Key(long assignmentId, String answerKeyHash, String schemaVersion) {
+    }
+
+    private AnswerKeyCache() {
+    }
+
+    public static Key key(long assignmentId, String answerKey) {
+        return new Key(assignmentId, hash(answerKey), SCHEMA_VERSION);
+    }
+
+    public static synchronized ExpectedResult get(Key key) {
+        return entries.get(key);
+    }
+
+    public static synchronized void put(Key key, ExpectedResult result) {
+        entries.put(key, result);
+    }
+
+    public static synchronized void invalidate(long assignmentId) {
+        entries.keySet().removeIf(key -> key.assignmentId() == assignmentId);
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+    }
+
+    private static String hash(String answerKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(answerKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
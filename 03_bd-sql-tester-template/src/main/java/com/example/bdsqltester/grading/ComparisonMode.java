@@ -0,0 +1,14 @@
+package com.example.bdsqltester.grading;
+
+import java.util.regex.Pattern;
+
+public enum ComparisonMode {
+    ORDERED,
+    UNORDERED;
+
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
+
+    public static ComparisonMode forAnswerKey(String answerKey) {
+        return ORDER_BY.matcher(SqlNormalizer.topLevel(answerKey)).find() ? ORDERED : UNORDERED;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ResultBuffer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ExpectedResult {
+    public static final int MAX_SAMPLE_ROWS = 1000;
+
+    private final ResultFingerprint fingerprint;
+    private final ResultBuffer sample;
+
+    public ExpectedResult(ResultFingerprint fingerprint, ResultBuffer sample) {
+        this.fingerprint = fingerprint;
+        this.sample = sample;
+    }
+
+    public static ExpectedResult of(ResultSet rs) throws SQLException {
+        ResultBuffer sample = new ResultBuffer(rs.getMetaData(), ResultComparator.BATCH_ROWS);
+        ResultFingerprint fingerprint = new ResultFingerprint(sample.getColumnCount());
+        while (sample.size() < MAX_SAMPLE_ROWS && rs.next()) {
+            sample.appendRow(rs);
+            fingerprint.addRow(sample, sample.size() - 1);
+        }
+        if (sample.size() == MAX_SAMPLE_ROWS) {
+            fingerprint.addRows(rs, sample.emptyCopy(ResultComparator.BATCH_ROWS), null);
+        }
+        return new ExpectedResult(fingerprint, sample);
+    }
+
+    public ResultFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public ResultBuffer getSample() {
+        return sample;
+    }
+
+    public int getColumnCount() {
+        return fingerprint.getColumnCount();
+    }
+
+    public long getRowCount() {
+        return fingerprint.getRowCount();
+    }
+
+    public boolean isComplete() {
+        return sample.size() == fingerprint.getRowCount();
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.metrics.Counter;
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.metrics.Timer;
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.QueryExecutionService;
+import com.example.bdsqltester.services.QueryHandle;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+public class GradingEngine {
+    static final int FETCH_SIZE = 500;
+
+    private static final Timer gradingTime = Metrics.timer("grading_seconds", "Time to grade a submission, excluding cache hits");
+    private static final Counter cacheHits = Metrics.counter("grading_cache_hits_total", "Submissions answered from SubmissionCache");
+
+    /**
+     * Kelas SQLSTATE yang berarti kesalahan ada pada teks jawaban (sintaks, tipe data, constraint, dan sejenisnya).
+     * Kesalahan lain, misalnya koneksi putus (08), deadlock atau serialisasi (40), server penuh (53), atau server
+     * dimatikan (57), tidak bergantung pada jawaban sehingga tidak boleh dinilai salah maupun disimpan.
+     */
+    private static final Set<String> SUBMISSION_ERROR_CLASSES = Set.of(
+            "0A", "21", "22", "23", "25", "26", "2B", "2F", "34", "3F", "42", "44", "P0");
+
+    private GradingEngine() {
+    }
+
+    public static GradingResult grade(String answerKey, String submission) throws SQLException {
+        return grade(answerKey, submission, ComparisonMode.forAnswerKey(answerKey));
+    }
+
+    public static GradingResult grade(String answerKey, String submission, ComparisonMode mode) throws SQLException {
+        if (submission == null || submission.isBlank()) {
+            return GradingResult.wrong("Jawaban kosong.");
+        }
+
+        ExecutionGuard guard = new ExecutionGuard(ExecutionLimits.defaults(), new QueryHandle());
+        try (Connection connection = QueryExecutionService.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                guard.prepare(connection);
+                guard.checkPlan(connection, submission);
+                return ParallelGrader.isAvailable()
+                        ? ParallelGrader.grade(connection, answerKey, submission, mode, guard, null)
+                        : gradeStreaming(connection, answerKey, submission, mode, guard);
+            } catch (SQLException e) {
+                return limitResult(e, guard);
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    public static GradingResult grade(long assignmentId, String answerKey, String submission) throws SQLException {
+        return grade(assignmentId, answerKey, submission, new QueryHandle());
+    }
+
+    public static GradingResult grade(long assignmentId, String answerKey, String submission,
+                                      QueryHandle handle) throws SQLException {
+        if (submission == null || submission.isBlank()) {
+            return GradingResult.wrong("Jawaban kosong.");
+        }
+
+        AnswerKeyCache.Key key = AnswerKeyCache.key(assignmentId, answerKey);
+        boolean cacheable = SubmissionCache.isCacheable(submission);
+        SubmissionCache.Key submissionKey = SubmissionCache.key(key, submission);
+        GradingResult cached = cacheable ? SubmissionCache.get(submissionKey) : null;
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        boolean sandbox = SandboxGrader.requiresSandbox(assignmentId, answerKey);
+        ExecutionLimits limits = ExecutionLimits.forAssignment(assignmentId);
+        ExpectedResult known = sandbox ? null : AnswerKeyCache.get(key);
+        if (known != null) {
+            limits = limits.forSubmission(known.getRowCount());
+        }
+        ExecutionGuard guard = new ExecutionGuard(limits, handle);
+        long start = System.nanoTime();
+        try {
+            GradingResult result = sandbox
+                    ? SandboxGrader.grade(key, answerKey, submission, guard)
+                    : gradeQuery(key, answerKey, submission, guard);
+            if (cacheable) {
+                SubmissionCache.put(submissionKey, result);
+            }
+            return result;
+        } catch (SQLException e) {
+            return limitResult(e, guard);
+        } finally {
+            gradingTime.record(System.nanoTime() - start);
+        }
+    }
+
+    private static GradingResult gradeQuery(AnswerKeyCache.Key key, String answerKey, String submission,
+                                            ExecutionGuard guard) throws SQLException {
+        ComparisonMode mode = ComparisonMode.forAnswerKey(answerKey);
+        try (Connection connection = QueryExecutionService.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                ExpectedResult expected = AnswerKeyCache.get(key);
+                boolean needsAnswerKey = expected == null || mode == ComparisonMode.ORDERED && !expected.isComplete();
+                if (needsAnswerKey && ParallelGrader.isAvailable()) {
+                    guard.prepare(connection);
+                    guard.checkPlan(connection, submission);
+                    return ParallelGrader.grade(connection, answerKey, submission, mode, guard,
+                            expected == null ? loaded -> AnswerKeyCache.put(key, loaded) : null);
+                }
+                if (expected == null) {
+                    expected = loadExpected(connection, answerKey);
+                    AnswerKeyCache.put(key, expected);
+                }
+                guard.prepare(connection);
+                guard.checkPlan(connection, submission);
+                return mode == ComparisonMode.ORDERED && !expected.isComplete()
+                        ? gradeStreaming(connection, answerKey, submission, mode, guard)
+                        : gradeAgainst(connection, expected, answerKey, submission, mode, guard);
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    public static void preloadAnswerKey(long assignmentId, String answerKey) throws SQLException {
+        AnswerKeyCache.Key key = AnswerKeyCache.key(assignmentId, answerKey);
+        if (SandboxGrader.requiresSandbox(assignmentId, answerKey)) {
+            SandboxGrader.preload(key, answerKey);
+            return;
+        }
+        if (AnswerKeyCache.get(key) != null) {
+            return;
+        }
+        try (Connection connection = QueryExecutionService.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                AnswerKeyCache.put(key, loadExpected(connection, answerKey));
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static GradingResult limitResult(SQLException e, ExecutionGuard guard) throws SQLException {
+        LimitExceededException limit = guard.translate(e);
+        if (limit == null || limit.getLimit() == ExecutionLimits.Limit.CANCELLED) {
+            throw limit == null ? e : limit;
+        }
+        return GradingResult.wrong(limit.getMessage());
+    }
+
+    static GradingResult submissionFailed(SQLException e, ExecutionGuard guard) throws SQLException {
+        if (guard.translate(e) != null || !isSubmissionError(e)) {
+            throw e;
+        }
+        return GradingResult.wrong("Query gagal dijalankan: " + e.getMessage());
+    }
+
+    private static boolean isSubmissionError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.length() == 5 && SUBMISSION_ERROR_CLASSES.contains(state.substring(0, 2));
+    }
+
+    private static ExpectedResult loadExpected(Connection connection, String answerKey) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery(answerKey)) {
+                return ExpectedResult.of(rs);
+            }
+        }
+    }
+
+    private static GradingResult gradeAgainst(Connection connection, ExpectedResult expected, String answerKey,
+                                              String submission, ComparisonMode mode,
+                                              ExecutionGuard guard) throws SQLException {
+        GradingResult result;
+        try (Statement actualStmt = connection.createStatement()) {
+            guard.apply(actualStmt);
+            actualStmt.setFetchSize(FETCH_SIZE);
+            ResultSet actual;
+            try {
+                actual = actualStmt.executeQuery(submission);
+            } catch (SQLException e) {
+                return submissionFailed(e, guard);
+            }
+
+            try (actual) {
+                GradingResult columnMismatch = ResultComparator.checkColumns(expected.getSample(), actual);
+                if (columnMismatch != null) {
+                    return columnMismatch;
+                }
+                if (mode == ComparisonMode.ORDERED) {
+                    return ResultComparator.compareOrdered(expected.getSample(), actual, guard);
+                }
+                result = ResultComparator.compareFingerprints(expected.getFingerprint(), ResultFingerprint.of(actual, guard));
+            }
+        }
+        if (result != null) {
+            return result;
+        }
+        return ParallelGrader.isAvailable()
+                ? ParallelGrader.grade(connection, answerKey, submission, ComparisonMode.UNORDERED, null, null)
+                : diffUnordered(connection, answerKey, submission, guard);
+    }
+
+    private static GradingResult gradeStreaming(Connection connection, String answerKey, String submission,
+                                                ComparisonMode mode, ExecutionGuard guard) throws SQLException {
+        GradingResult result;
+        try (Statement actualStmt = connection.createStatement();
+             Statement expectedStmt = connection.createStatement()) {
+            guard.apply(actualStmt);
+            actualStmt.setFetchSize(FETCH_SIZE);
+            expectedStmt.setFetchSize(FETCH_SIZE);
+
+            ResultSet actual;
+            try {
+                actual = actualStmt.executeQuery(submission);
+            } catch (SQLException e) {
+                return submissionFailed(e, guard);
+            }
+
+            try (actual; ResultSet expected = executeAnswerKey(connection, expectedStmt, answerKey, guard)) {
+                result = ResultComparator.compare(expected, actual, mode, guard);
+            }
+        }
+        if (result != null) {
+            return result;
+        }
+        return diffUnordered(connection, answerKey, submission, guard);
+    }
+
+    private static ResultSet executeAnswerKey(Connection connection, Statement stmt, String answerKey,
+                                              ExecutionGuard guard) throws SQLException {
+        guard.suspend(connection);
+        try {
+            return stmt.executeQuery(answerKey);
+        } finally {
+            guard.prepare(connection);
+        }
+    }
+
+    private static GradingResult diffUnordered(Connection connection, String answerKey, String submission,
+                                               ExecutionGuard guard) throws SQLException {
+        try (Statement expectedStmt = connection.createStatement();
+             Statement actualStmt = connection.createStatement()) {
+            expectedStmt.setFetchSize(FETCH_SIZE);
+            actualStmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet expected = executeAnswerKey(connection, expectedStmt, answerKey, guard);
+                 ResultSet actual = actualStmt.executeQuery(submission)) {
+                return ResultComparator.diffUnordered(expected, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bdsqltester.grading;
+
+public class GradingResult {
+    public static final double FULL_SCORE = 100;
+
+    private final double grade;
+    private final String message;
+
+    public GradingResult(double grade, String message) {
+        this.grade = grade;
+        this.message = message;
+    }
+
+    public static GradingResult correct() {
+        return new GradingResult(FULL_SCORE, "Hasil query sesuai dengan kunci jawaban.");
+    }
+
+    public static GradingResult wrong(String message) {
+        return new GradingResult(0, message);
+    }
+
+    public double getGrade() {
+        return grade;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isCorrect() {
+        return grade >= FULL_SCORE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f (%s)", grade, message);
+    }
+}
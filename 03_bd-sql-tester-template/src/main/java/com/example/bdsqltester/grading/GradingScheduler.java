@@ -0,0 +1,84 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.services.QueryHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class GradingScheduler {
+    private static final Logger log = LoggerFactory.getLogger(GradingScheduler.class);
+
+    private static final int WORKERS = Integer.getInteger("bdsqltester.grading.workers", 4);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("bdsqltester.grading.queueCapacity", 64);
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            Thread.ofVirtual().name("grader-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    static {
+        Metrics.gauge("grading_queue_depth", "Grading tasks waiting for a worker", GradingScheduler::getQueueDepth);
+        Metrics.gauge("grading_active_workers", "Grading workers currently running a task", GradingScheduler::getActiveCount);
+        Metrics.gauge("grading_completed_tasks", "Grading tasks finished since startup", executor::getCompletedTaskCount);
+    }
+
+    private GradingScheduler() {
+    }
+
+    public static CompletableFuture<GradingResult> submit(long assignmentId, String answerKey, String submission) {
+        return submit(() -> GradingEngine.grade(assignmentId, answerKey, submission));
+    }
+
+    public static CompletableFuture<GradingResult> submit(long assignmentId, String answerKey, String submission,
+                                                          QueryHandle handle) {
+        return submit(() -> GradingEngine.grade(assignmentId, answerKey, submission, handle));
+    }
+
+    public static <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Grading queue full ({} pending), rejecting task", executor.getQueue().size());
+            future.completeExceptionally(new RejectedExecutionException("Antrian penilaian penuh, silakan coba lagi sebentar lagi.", e));
+        }
+        return future;
+    }
+
+    public static int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public static int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public static void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
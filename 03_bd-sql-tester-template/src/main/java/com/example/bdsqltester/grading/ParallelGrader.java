@@ -0,0 +1,351 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.datasources.GradingDataSource;
+import com.example.bdsqltester.metrics.Counter;
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.QueryExecutionService;
+import com.example.bdsqltester.services.ResultBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+class ParallelGrader {
+    private static final Logger log = LoggerFactory.getLogger(ParallelGrader.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("bdsqltester.grading.parallel", "true"));
+    private static final int BATCH_ROWS = 64;
+    private static final int QUEUE_BATCHES = 16;
+
+    private static final Counter aborts = Metrics.counter("grading_parallel_aborts_total",
+            "Parallel gradings stopped at the first difference");
+
+    private ParallelGrader() {
+    }
+
+    static boolean isAvailable() {
+        try {
+            return ENABLED && GradingDataSource.hasSpareConnection();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    static GradingResult grade(Connection connection, String answerKey, String submission, ComparisonMode mode,
+                               ExecutionGuard guard, Consumer<ExpectedResult> onExpected) throws SQLException {
+        ExpectedSide expectedSide = new ExpectedSide(answerKey);
+        Thread.ofVirtual().name("grading-answer-key").start(expectedSide);
+        try (Statement actualStmt = connection.createStatement()) {
+            if (guard != null) {
+                guard.apply(actualStmt);
+            }
+            actualStmt.setFetchSize(GradingEngine.FETCH_SIZE);
+            ResultSet actual;
+            try {
+                actual = actualStmt.executeQuery(submission);
+            } catch (SQLException e) {
+                expectedSide.abort();
+                if (guard == null) {
+                    throw e;
+                }
+                return GradingEngine.submissionFailed(e, guard);
+            }
+
+            try (actual) {
+                Comparison comparison = new Comparison(expectedSide, actual, guard, onExpected != null);
+                GradingResult result = mode == ComparisonMode.ORDERED ? comparison.ordered() : comparison.unordered();
+                if (expectedSide.finished) {
+                    if (onExpected != null) {
+                        onExpected.accept(comparison.expectedResult());
+                    }
+                } else {
+                    aborts.increment();
+                }
+                return result;
+            }
+        } finally {
+            expectedSide.abort();
+        }
+    }
+
+    private record Failure(SQLException error) {
+    }
+
+    private static final Object END = new Object();
+
+    private static class ExpectedSide implements Runnable {
+        private final String answerKey;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        private volatile Statement statement;
+        private volatile boolean aborted;
+        private boolean finished;
+
+        ExpectedSide(String answerKey) {
+            this.answerKey = answerKey;
+        }
+
+        @Override
+        public void run() {
+            Failure failure;
+            try {
+                read();
+                return;
+            } catch (SQLException e) {
+                failure = new Failure(e);
+            } catch (RuntimeException e) {
+                failure = new Failure(new SQLException(e));
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                send(failure);
+            } catch (InterruptedException e) {
+            }
+        }
+
+        private void read() throws SQLException, InterruptedException {
+            try (Connection connection = QueryExecutionService.getConnection()) {
+                connection.setAutoCommit(false);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.setFetchSize(GradingEngine.FETCH_SIZE);
+                    statement = stmt;
+                    if (aborted) {
+                        return;
+                    }
+                    try (ResultSet rs = stmt.executeQuery(answerKey)) {
+                        ResultBuffer columns = new ResultBuffer(rs.getMetaData(), 0);
+                        send(columns);
+                        int count = BATCH_ROWS;
+                        while (!aborted && count == BATCH_ROWS) {
+                            ResultBuffer batch = columns.emptyCopy(BATCH_ROWS);
+                            count = batch.fill(rs, BATCH_ROWS, null);
+                            if (count > 0) {
+                                send(batch);
+                            }
+                        }
+                        send(END);
+                    }
+                } finally {
+                    connection.rollback();
+                }
+            }
+        }
+
+        private void send(Object message) throws InterruptedException {
+            if (!aborted) {
+                queue.put(message);
+            }
+        }
+
+        Object take() throws SQLException {
+            Object message;
+            try {
+                message = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Penilaian dihentikan.", "57014", e);
+            }
+            if (message instanceof Failure failure) {
+                finished = true;
+                throw failure.error();
+            }
+            if (message == END) {
+                finished = true;
+            }
+            return message;
+        }
+
+        Object poll() throws SQLException {
+            Object message = queue.peek();
+            return message == null ? null : take();
+        }
+
+        void abort() {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            Statement current = statement;
+            if (current != null && !finished) {
+                try {
+                    current.cancel();
+                } catch (SQLException e) {
+                    log.debug("Cancelling answer key failed: {}", e.getMessage());
+                }
+            }
+            queue.clear();
+        }
+    }
+
+    private static class Comparison {
+        private final ExpectedSide expectedSide;
+        private final ResultSet actual;
+        private final ExecutionGuard guard;
+        private final ResultBuffer actualColumns;
+        private final ResultFingerprint expectedFingerprint;
+        private final ResultBuffer expectedSample;
+        private GradingResult mismatch;
+        private ResultBuffer expectedBatch;
+        private int expectedIndex;
+        private ResultBuffer actualBatch;
+        private int actualIndex;
+        private boolean actualDone;
+        private long expectedRows;
+        private long actualRows;
+
+        Comparison(ExpectedSide expectedSide, ResultSet actual, ExecutionGuard guard, boolean keepExpected) throws SQLException {
+            this.expectedSide = expectedSide;
+            this.actual = actual;
+            this.guard = guard;
+            this.actualColumns = new ResultBuffer(actual.getMetaData(), 0);
+            this.actualBatch = actualColumns;
+            ResultBuffer expectedColumns = (ResultBuffer) expectedSide.take();
+            this.expectedBatch = expectedColumns;
+            this.expectedFingerprint = keepExpected ? new ResultFingerprint(expectedColumns.getColumnCount()) : null;
+            this.expectedSample = keepExpected ? expectedColumns.emptyCopy(BATCH_ROWS) : null;
+            this.mismatch = ResultComparator.checkColumns(expectedColumns, actualColumns);
+        }
+
+        ExpectedResult expectedResult() {
+            return new ExpectedResult(expectedFingerprint, expectedSample);
+        }
+
+        GradingResult ordered() throws SQLException {
+            if (mismatch != null) {
+                return mismatch;
+            }
+            long row = 0;
+            while (true) {
+                boolean hasExpected = nextExpected(true);
+                boolean hasActual = nextActual();
+                row++;
+
+                if (!hasExpected && !hasActual) {
+                    return GradingResult.correct();
+                }
+                if (hasExpected != hasActual) {
+                    return GradingResult.wrong(hasExpected
+                            ? "Jumlah baris kurang: hasil berhenti pada baris " + (row - 1) + "."
+                            : "Jumlah baris berlebih: baris " + row + " tidak diharapkan.");
+                }
+                if (!expectedBatch.rowEquals(expectedIndex - 1, actualBatch, actualIndex - 1)) {
+                    return GradingResult.wrong("Baris " + row + " tidak sesuai dengan kunci jawaban.");
+                }
+            }
+        }
+
+        GradingResult unordered() throws SQLException {
+            if (mismatch != null) {
+                return mismatch;
+            }
+            Map<RowKey, Balance> balances = new HashMap<>();
+            while (nextActual()) {
+                actualRows++;
+                RowKey key = new RowKey(actualBatch, actualIndex - 1);
+                Balance balance = balances.get(key);
+                if (balance == null) {
+                    balances.put(key, new Balance(-1, actualRows));
+                } else if (--balance.count == 0) {
+                    balances.remove(key);
+                } else if (balance.count < 0 && balance.firstUnmatchedRow < 0) {
+                    balance.firstUnmatchedRow = actualRows;
+                }
+                drainExpected(balances, false);
+                if (expectedSide.finished && actualRows > expectedRows) {
+                    return GradingResult.wrong("Jumlah baris berlebih: diharapkan " + expectedRows + " baris.");
+                }
+            }
+            if (!drainExpected(balances, true) || expectedRows > actualRows) {
+                return GradingResult.wrong("Jumlah baris kurang: hasil berhenti pada baris " + actualRows + ".");
+            }
+            if (actualRows > expectedRows) {
+                return GradingResult.wrong("Jumlah baris berlebih: diharapkan " + expectedRows + " baris.");
+            }
+            long firstUnmatched = Long.MAX_VALUE;
+            for (Balance balance : balances.values()) {
+                if (balance.count < 0) {
+                    firstUnmatched = Math.min(firstUnmatched, balance.firstUnmatchedRow);
+                }
+            }
+            return firstUnmatched == Long.MAX_VALUE
+                    ? GradingResult.correct()
+                    : GradingResult.wrong("Baris " + firstUnmatched + " tidak ada pada hasil kunci jawaban.");
+        }
+
+        private boolean drainExpected(Map<RowKey, Balance> balances, boolean wait) throws SQLException {
+            while (true) {
+                if (!nextExpected(wait)) {
+                    return true;
+                }
+                if (wait && expectedRows > actualRows) {
+                    return false;
+                }
+                RowKey key = new RowKey(expectedBatch, expectedIndex - 1);
+                Balance balance = balances.get(key);
+                if (balance == null) {
+                    balances.put(key, new Balance(1, -1));
+                } else if (++balance.count == 0) {
+                    balances.remove(key);
+                }
+            }
+        }
+
+        private boolean nextActual() throws SQLException {
+            if (actualIndex == actualBatch.size()) {
+                if (actualDone) {
+                    return false;
+                }
+                actualBatch = actualColumns.emptyCopy(BATCH_ROWS);
+                actualIndex = 0;
+                actualDone = actualBatch.fill(actual, BATCH_ROWS, guard) < BATCH_ROWS;
+                if (actualBatch.size() == 0) {
+                    return false;
+                }
+            }
+            actualIndex++;
+            return true;
+        }
+
+        private boolean nextExpected(boolean wait) throws SQLException {
+            while (expectedIndex == expectedBatch.size()) {
+                if (expectedSide.finished) {
+                    return false;
+                }
+                Object message = wait ? expectedSide.take() : expectedSide.poll();
+                if (message == null || message == END) {
+                    return false;
+                }
+                expectedBatch = (ResultBuffer) message;
+                expectedIndex = 0;
+            }
+            expectedRows++;
+            if (expectedFingerprint != null) {
+                expectedFingerprint.addRow(expectedBatch, expectedIndex);
+                if (expectedSample.size() < ExpectedResult.MAX_SAMPLE_ROWS) {
+                    expectedSample.appendRow(expectedBatch, expectedIndex);
+                }
+            }
+            expectedIndex++;
+            return true;
+        }
+    }
+
+    private static class Balance {
+        private int count;
+        private long firstUnmatchedRow;
+
+        Balance(int count, long firstUnmatchedRow) {
+            this.count = count;
+            this.firstUnmatchedRow = firstUnmatchedRow;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.services.GradeReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RegradeJob {
+    private static final Logger log = LoggerFactory.getLogger(RegradeJob.class);
+
+    private static final int WORKERS = Integer.getInteger("bdsqltester.regrade.workers", 4);
+    private static final int BATCH_SIZE = 500;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int done, int total, double answersPerSecond);
+    }
+
+    public static class Summary {
+        private final int answers;
+        private final int submissionsUpdated;
+        private final int gradesUpdated;
+        private final long elapsedMillis;
+
+        public Summary(int answers, int submissionsUpdated, int gradesUpdated, long elapsedMillis) {
+            this.answers = answers;
+            this.submissionsUpdated = submissionsUpdated;
+            this.gradesUpdated = gradesUpdated;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getAnswers() {
+            return answers;
+        }
+
+        public int getSubmissionsUpdated() {
+            return submissionsUpdated;
+        }
+
+        public int getGradesUpdated() {
+            return gradesUpdated;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private record GradedAnswer(String answer, double grade) {
+    }
+
+    private RegradeJob() {
+    }
+
+    public static Summary run(long assignmentId, String answerKey, ProgressListener listener) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        List<String> answers = loadDistinctAnswers(assignmentId);
+        if (answers.isEmpty()) {
+            return new Summary(0, 0, 0, 0);
+        }
+
+        GradingEngine.preloadAnswerKey(assignmentId, answerKey);
+
+        List<GradedAnswer> graded = new ArrayList<>(answers.size());
+        ExecutorService executor = Executors.newFixedThreadPool(WORKERS, Thread.ofVirtual().name("regrade-", 0).factory());
+        try {
+            CompletionService<GradedAnswer> completion = new ExecutorCompletionService<>(executor);
+            for (String answer : answers) {
+                completion.submit(() -> new GradedAnswer(answer, GradingEngine.grade(assignmentId, answerKey, answer).getGrade()));
+            }
+
+            long lastReport = 0;
+            for (int done = 1; done <= answers.size(); done++) {
+                try {
+                    graded.add(completion.take().get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof SQLException sql ? sql : new SQLException(e.getCause());
+                }
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS || done == answers.size()) {
+                    lastReport = now;
+                    listener.onProgress(done, answers.size(), done / ((now - start) / 1e9));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int[] written = writeGrades(assignmentId, graded);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Regraded {} distinct answers for assignment {} in {} ms", answers.size(), assignmentId, elapsed);
+        return new Summary(answers.size(), written[0], written[1], elapsed);
+    }
+
+    private static List<String> loadDistinctAnswers(long assignmentId) throws SQLException {
+        List<String> answers = new ArrayList<>();
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT DISTINCT answer FROM submissions WHERE assignment_id = ?")) {
+            stmt.setLong(1, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    answers.add(rs.getString(1));
+                }
+            }
+        }
+        return answers;
+    }
+
+    private static int[] writeGrades(long assignmentId, List<GradedAnswer> graded) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int submissionsUpdated = 0;
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE submissions SET grade = ? WHERE assignment_id = ? AND answer = ?")) {
+                    int pending = 0;
+                    for (GradedAnswer answer : graded) {
+                        update.setDouble(1, answer.grade());
+                        update.setLong(2, assignmentId);
+                        update.setString(3, answer.answer());
+                        update.addBatch();
+                        if (++pending == BATCH_SIZE) {
+                            submissionsUpdated += sum(update.executeBatch());
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        submissionsUpdated += sum(update.executeBatch());
+                    }
+                }
+
+                int gradesUpdated;
+                try (PreparedStatement best = connection.prepareStatement(
+                        "UPDATE grades g SET grade = s.best " +
+                                "FROM (SELECT user_id, MAX(grade) AS best FROM submissions WHERE assignment_id = ? GROUP BY user_id) s " +
+                                "WHERE g.assignment_id = ? AND g.user_id = s.user_id")) {
+                    best.setLong(1, assignmentId);
+                    best.setLong(2, assignmentId);
+                    gradesUpdated = best.executeUpdate();
+                }
+
+                connection.commit();
+                GradeReport.invalidate(assignmentId);
+                return new int[]{submissionsUpdated, gradesUpdated};
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
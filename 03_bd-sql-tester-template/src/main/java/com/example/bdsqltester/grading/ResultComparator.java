@@ -0,0 +1,153 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.ResultBuffer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ResultComparator {
+    static final int BATCH_ROWS = 256;
+
+    private ResultComparator() {
+    }
+
+    public static GradingResult compare(ResultSet expected, ResultSet actual, ComparisonMode mode,
+                                        ExecutionGuard guard) throws SQLException {
+        ResultBuffer expectedBatch = new ResultBuffer(expected.getMetaData(), BATCH_ROWS);
+        ResultBuffer actualBatch = new ResultBuffer(actual.getMetaData(), BATCH_ROWS);
+        GradingResult columnMismatch = checkColumns(expectedBatch, actualBatch);
+        if (columnMismatch != null) {
+            return columnMismatch;
+        }
+
+        if (mode == ComparisonMode.ORDERED) {
+            return compareOrdered(expected, expectedBatch, actual, actualBatch, guard);
+        }
+        ResultFingerprint expectedFingerprint = new ResultFingerprint(expectedBatch.getColumnCount());
+        expectedFingerprint.addRows(expected, expectedBatch, null);
+        ResultFingerprint actualFingerprint = new ResultFingerprint(actualBatch.getColumnCount());
+        actualFingerprint.addRows(actual, actualBatch, guard);
+        return compareFingerprints(expectedFingerprint, actualFingerprint);
+    }
+
+    public static GradingResult checkColumns(ResultBuffer expected, ResultSet actual) throws SQLException {
+        return checkColumns(expected, new ResultBuffer(actual.getMetaData(), 0));
+    }
+
+    public static GradingResult checkColumns(ResultBuffer expected, ResultBuffer actual) {
+        int expectedColumns = expected.getColumnCount();
+        int actualColumns = actual.getColumnCount();
+        if (expectedColumns != actualColumns) {
+            return GradingResult.wrong("Jumlah kolom berbeda: diharapkan " + expectedColumns + ", didapat " + actualColumns + ".");
+        }
+        for (int i = 0; i < expectedColumns; i++) {
+            ResultBuffer.Kind expectedKind = expected.getKind(i);
+            ResultBuffer.Kind actualKind = actual.getKind(i);
+            if (!expectedKind.isComparableWith(actualKind)) {
+                return GradingResult.wrong("Tipe kolom " + (i + 1) + " (" + actual.getColumnName(i) + ") berbeda: diharapkan "
+                        + expectedKind.getFamily() + ", didapat " + actualKind.getFamily() + ".");
+            }
+        }
+        return null;
+    }
+
+    public static GradingResult compareFingerprints(ResultFingerprint expected, ResultFingerprint actual) {
+        if (expected.equals(actual)) {
+            return GradingResult.correct();
+        }
+        if (expected.getRowCount() != actual.getRowCount()) {
+            return GradingResult.wrong("Jumlah baris berbeda: diharapkan " + expected.getRowCount() + ", didapat " + actual.getRowCount() + ".");
+        }
+        return null;
+    }
+
+    private static GradingResult compareOrdered(ResultSet expected, ResultBuffer expectedBatch, ResultSet actual,
+                                                ResultBuffer actualBatch, ExecutionGuard guard) throws SQLException {
+        long row = 0;
+        while (true) {
+            expectedBatch.clear();
+            actualBatch.clear();
+            int expectedCount = expectedBatch.fill(expected, BATCH_ROWS, null);
+            int actualCount = actualBatch.fill(actual, BATCH_ROWS, guard);
+            for (int i = 0; i < Math.min(expectedCount, actualCount); i++) {
+                row++;
+                if (!expectedBatch.rowEquals(i, actualBatch, i)) {
+                    return GradingResult.wrong("Baris " + row + " tidak sesuai dengan kunci jawaban.");
+                }
+            }
+            if (expectedCount != actualCount) {
+                return GradingResult.wrong(expectedCount > actualCount
+                        ? "Jumlah baris kurang: hasil berhenti pada baris " + row + "."
+                        : "Jumlah baris berlebih: baris " + (row + 1) + " tidak diharapkan.");
+            }
+            if (expectedCount < BATCH_ROWS) {
+                return GradingResult.correct();
+            }
+        }
+    }
+
+    public static GradingResult compareOrdered(ResultBuffer expectedRows, ResultSet actual,
+                                               ExecutionGuard guard) throws SQLException {
+        ResultBuffer batch = new ResultBuffer(actual.getMetaData(), BATCH_ROWS);
+        long row = 0;
+        int count;
+        do {
+            batch.clear();
+            count = batch.fill(actual, BATCH_ROWS, guard);
+            for (int i = 0; i < count; i++) {
+                row++;
+                if (row > expectedRows.size()) {
+                    return GradingResult.wrong("Jumlah baris berlebih: baris " + row + " tidak diharapkan.");
+                }
+                if (!expectedRows.rowEquals((int) row - 1, batch, i)) {
+                    return GradingResult.wrong("Baris " + row + " tidak sesuai dengan kunci jawaban.");
+                }
+            }
+        } while (count == BATCH_ROWS);
+        if (row < expectedRows.size()) {
+            return GradingResult.wrong("Jumlah baris kurang: hasil berhenti pada baris " + row + ".");
+        }
+        return GradingResult.correct();
+    }
+
+    public static GradingResult diffUnordered(ResultSet expected, ResultSet actual) throws SQLException {
+        ResultBuffer expectedRows = new ResultBuffer(expected.getMetaData(), BATCH_ROWS);
+        while (expectedRows.fill(expected, BATCH_ROWS, null) == BATCH_ROWS) {
+        }
+        Map<RowKey, Integer> remaining = new HashMap<>();
+        for (int i = 0; i < expectedRows.size(); i++) {
+            remaining.merge(new RowKey(expectedRows, i), 1, Integer::sum);
+        }
+
+        ResultBuffer batch = new ResultBuffer(actual.getMetaData(), BATCH_ROWS);
+        long row = 0;
+        int count;
+        do {
+            batch.clear();
+            count = batch.fill(actual, BATCH_ROWS, null);
+            for (int i = 0; i < count; i++) {
+                row++;
+                RowKey key = new RowKey(batch, i);
+                Integer remainingCount = remaining.get(key);
+                if (remainingCount == null) {
+                    return GradingResult.wrong(row > expectedRows.size()
+                            ? "Jumlah baris berlebih: diharapkan " + expectedRows.size() + " baris."
+                            : "Baris " + row + " tidak ada pada hasil kunci jawaban.");
+                }
+                if (remainingCount == 1) {
+                    remaining.remove(key);
+                } else {
+                    remaining.put(key, remainingCount - 1);
+                }
+            }
+        } while (count == BATCH_ROWS);
+
+        if (!remaining.isEmpty()) {
+            return GradingResult.wrong("Jumlah baris kurang: diharapkan " + expectedRows.size() + ", didapat " + row + ".");
+        }
+        return GradingResult.correct();
+    }
+}
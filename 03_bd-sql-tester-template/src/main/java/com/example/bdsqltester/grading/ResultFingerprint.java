@@ -0,0 +1,126 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.ResultBuffer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ResultFingerprint {
+    private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_HIGH = 0x100000001B3L;
+    private static final long PRIME_LOW = 0x87C37B91114253D5L;
+    private static final long NULL_TAG = 0xFFL;
+
+    private final int columnCount;
+    private long rowCount;
+    private long sumHigh;
+    private long sumLow;
+
+    public ResultFingerprint(int columnCount) {
+        this.columnCount = columnCount;
+    }
+
+    public ResultFingerprint(int columnCount, long rowCount, long sumHigh, long sumLow) {
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.sumHigh = sumHigh;
+        this.sumLow = sumLow;
+    }
+
+    public static ResultFingerprint of(ResultSet rs) throws SQLException {
+        return of(rs, null);
+    }
+
+    public static ResultFingerprint of(ResultSet rs, ExecutionGuard guard) throws SQLException {
+        ResultBuffer batch = new ResultBuffer(rs.getMetaData(), ResultComparator.BATCH_ROWS);
+        ResultFingerprint fingerprint = new ResultFingerprint(batch.getColumnCount());
+        fingerprint.addRows(rs, batch, guard);
+        return fingerprint;
+    }
+
+    void addRows(ResultSet rs, ResultBuffer batch, ExecutionGuard guard) throws SQLException {
+        int count;
+        do {
+            batch.clear();
+            count = batch.fill(rs, ResultComparator.BATCH_ROWS, guard);
+            for (int row = 0; row < count; row++) {
+                addRow(batch, row);
+            }
+        } while (count == ResultComparator.BATCH_ROWS);
+    }
+
+    public void addRow(ResultBuffer buffer, int row) {
+        long high = SEED_HIGH;
+        long low = SEED_LOW;
+        for (int column = 0; column < columnCount; column++) {
+            boolean isNull = buffer.isNull(row, column);
+            long tag = isNull ? NULL_TAG : tag(buffer.getKind(column));
+            high = (high ^ tag) * PRIME_HIGH;
+            low = Long.rotateLeft(low ^ tag, 31) * PRIME_LOW;
+            if (!isNull) {
+                long value = mix(buffer.cellHash(row, column));
+                high = (high ^ value) * PRIME_HIGH;
+                low = Long.rotateLeft(low ^ value, 31) * PRIME_LOW;
+            }
+        }
+        sumHigh += mix(high);
+        sumLow += mix(low);
+        rowCount++;
+    }
+
+    private static long tag(ResultBuffer.Kind kind) {
+        return switch (kind) {
+            case INTEGER, DECIMAL, FLOAT -> 0x01L;
+            case BOOLEAN -> 0x02L;
+            case DATE, TIMESTAMP -> 0x03L;
+            case TEXT -> 0x04L;
+        };
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSumHigh() {
+        return sumHigh;
+    }
+
+    public long getSumLow() {
+        return sumLow;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResultFingerprint that)) return false;
+        return columnCount == that.columnCount
+                && rowCount == that.rowCount
+                && sumHigh == that.sumHigh
+                && sumLow == that.sumLow;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sumHigh ^ sumLow) * 31 + Long.hashCode(rowCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %016x%016x", rowCount, sumHigh, sumLow);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ResultBuffer;
+
+record RowKey(ResultBuffer buffer, int row) {
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RowKey that)) return false;
+        return buffer.rowEquals(row, that.buffer, that.row);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.rowHash(row);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.datasources.SandboxDataSource;
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.QueryHandle;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class SandboxGrader {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}_]+");
+    private static final Pattern MODIFYING = Pattern.compile("\\b(insert|update|delete|merge|into)\\b");
+    private static final int MAX_ENTRIES = Integer.getInteger("bdsqltester.grading.answerKeyCacheSize", 64);
+    private static final Set<String> TRANSACTION_CONTROL = Set.of("begin", "start", "commit", "end", "rollback", "abort", "prepare");
+    private static final String ENDS_TRANSACTION = "Jawaban tidak boleh mengakhiri transaksi (COMMIT, ROLLBACK atau sejenisnya).";
+
+    private static final Map<AnswerKeyCache.Key, TableSnapshot> expectedSnapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<AnswerKeyCache.Key, TableSnapshot> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private SandboxGrader() {
+    }
+
+    static boolean requiresSandbox(long assignmentId, String answerKey) {
+        String override = System.getProperty("bdsqltester.sandbox.assignment." + assignmentId);
+        if (override != null) {
+            return Boolean.parseBoolean(override);
+        }
+        String sql = SqlNormalizer.normalize(answerKey);
+        if (sql.indexOf(';') >= 0) {
+            return true;
+        }
+        Matcher word = WORD.matcher(sql);
+        String firstWord = word.find() ? word.group().toLowerCase(Locale.ROOT) : "";
+        return switch (firstWord) {
+            case "select", "with", "values", "table" -> MODIFYING.matcher(sql).find();
+            default -> true;
+        };
+    }
+
+    static GradingResult grade(AnswerKeyCache.Key key, String answerKey, String submission, ExecutionGuard guard) throws SQLException {
+        if (controlsTransaction(submission)) {
+            return GradingResult.wrong(ENDS_TRANSACTION);
+        }
+        SandboxSchemas.Lease lease = SandboxSchemas.acquire();
+        try (Connection connection = connect(lease)) {
+            connection.setAutoCommit(false);
+            try {
+                TableSnapshot expected = expected(connection, lease, key, answerKey);
+                TableSnapshot actual;
+                try {
+                    actual = run(connection, lease, submission, guard);
+                } catch (SQLException e) {
+                    return GradingEngine.submissionFailed(e, guard);
+                }
+                if (actual == null) {
+                    return GradingResult.wrong(ENDS_TRANSACTION);
+                }
+                return TableSnapshot.compare(expected, actual);
+            } finally {
+                SandboxSchemas.release(connection, lease);
+            }
+        }
+    }
+
+    static void preload(AnswerKeyCache.Key key, String answerKey) throws SQLException {
+        if (getExpected(key) != null) {
+            return;
+        }
+        SandboxSchemas.Lease lease = SandboxSchemas.acquire();
+        try (Connection connection = connect(lease)) {
+            connection.setAutoCommit(false);
+            try {
+                expected(connection, lease, key, answerKey);
+            } finally {
+                SandboxSchemas.release(connection, lease);
+            }
+        }
+    }
+
+    static boolean controlsTransaction(String sql) {
+        for (String statement : SqlNormalizer.topLevel(sql).split(";")) {
+            Matcher word = WORD.matcher(statement);
+            if (word.find() && TRANSACTION_CONTROL.contains(word.group().toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Connection connect(SandboxSchemas.Lease lease) throws SQLException {
+        try {
+            return SandboxDataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            SandboxSchemas.cancel(lease);
+            throw e;
+        }
+    }
+
+    private static TableSnapshot expected(Connection connection, SandboxSchemas.Lease lease, AnswerKeyCache.Key key,
+                                          String answerKey) throws SQLException {
+        TableSnapshot expected = getExpected(key);
+        if (expected == null) {
+            ExecutionGuard guard = new ExecutionGuard(ExecutionLimits.defaults(), new QueryHandle());
+            expected = run(connection, lease, answerKey, guard);
+            if (expected == null) {
+                throw new SQLException("Kunci jawaban tidak boleh mengakhiri transaksi.");
+            }
+            putExpected(key, expected);
+        }
+        return expected;
+    }
+
+    private static TableSnapshot run(Connection connection, SandboxSchemas.Lease lease, String sql,
+                                     ExecutionGuard guard) throws SQLException {
+        try {
+            try (Statement setup = connection.createStatement()) {
+                setup.execute("SET LOCAL search_path = " + SandboxSchemas.quote(lease.getSchema()));
+            }
+            guard.prepare(connection);
+            long transactionId = currentTransactionId(connection);
+            guard.checkPlan(connection, sql);
+
+            ResultFingerprint lastResult = null;
+            try (Statement stmt = connection.createStatement()) {
+                guard.apply(stmt);
+                stmt.setFetchSize(GradingEngine.FETCH_SIZE);
+                boolean isResultSet = stmt.execute(sql);
+                while (true) {
+                    if (isResultSet) {
+                        try (ResultSet rs = stmt.getResultSet()) {
+                            lastResult = ResultFingerprint.of(rs, guard);
+                        }
+                    } else if (stmt.getUpdateCount() == -1) {
+                        break;
+                    }
+                    isResultSet = stmt.getMoreResults();
+                }
+            }
+
+            if (currentTransactionId(connection) != transactionId) {
+                lease.markDirty();
+                return null;
+            }
+            return TableSnapshot.capture(connection, lease.getSchema(), lastResult);
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private static long currentTransactionId(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT txid_current()")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static synchronized TableSnapshot getExpected(AnswerKeyCache.Key key) {
+        return expectedSnapshots.get(key);
+    }
+
+    private static synchronized void putExpected(AnswerKeyCache.Key key, TableSnapshot snapshot) {
+        expectedSnapshots.put(key, snapshot);
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.datasources.SandboxDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SandboxSchemas {
+    private static final Logger log = LoggerFactory.getLogger(SandboxSchemas.class);
+
+    static final String TEMPLATE = System.getProperty("bdsqltester.sandbox.templateSchema", "public");
+    private static final int SIZE = Integer.getInteger("bdsqltester.sandbox.schemas",
+            Integer.getInteger("bdsqltester.grading.workers", 4));
+    private static final long ACQUIRE_TIMEOUT_SECONDS = Long.getLong("bdsqltester.sandbox.acquireTimeoutSeconds", 60L);
+    private static final int INSTANCE = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+    private static final String PREFIX = "sandbox_" + INSTANCE + "_";
+    private static final Pattern SANDBOX_NAME = Pattern.compile("sandbox_(\\d+)_\\d+");
+    private static final int LOCK_NAMESPACE = 0x5C_53_42;
+
+    private static final BlockingQueue<Lease> ready = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<String> failed = new LinkedBlockingQueue<>();
+    private static final List<String> created = new ArrayList<>();
+    private static boolean started;
+    private static Connection ownerConnection;
+
+    private record SequenceState(String name, long value, boolean called) {
+    }
+
+    public static class Lease {
+        private final String schema;
+        private final List<SequenceState> sequences;
+        private boolean dirty;
+
+        private Lease(String schema, List<SequenceState> sequences) {
+            this.schema = schema;
+            this.sequences = sequences;
+        }
+
+        public String getSchema() {
+            return schema;
+        }
+
+        public void markDirty() {
+            dirty = true;
+        }
+    }
+
+    private SandboxSchemas() {
+    }
+
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (int i = 0; i < SIZE; i++) {
+            String schema = PREFIX + i;
+            created.add(schema);
+            rebuild(schema);
+        }
+    }
+
+    public static Lease acquire() throws SQLException {
+        start();
+        String schema;
+        while ((schema = failed.poll()) != null) {
+            rebuild(schema);
+        }
+        try {
+            Lease lease = ready.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (lease == null) {
+                throw new SQLException("Sandbox belum siap, silakan coba lagi sebentar lagi.");
+            }
+            return lease;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Menunggu sandbox dihentikan.", e);
+        }
+    }
+
+    public static void release(Connection connection, Lease lease) {
+        if (!lease.dirty) {
+            try {
+                resetSequences(connection, lease);
+                ready.add(lease);
+                return;
+            } catch (SQLException e) {
+                log.warn("Resetting sandbox {} failed, rebuilding it: {}", lease.schema, e.getMessage());
+            }
+        }
+        rebuild(lease.schema);
+    }
+
+    public static void cancel(Lease lease) {
+        ready.add(lease);
+    }
+
+    public static synchronized void shutdown() {
+        if (!started) {
+            return;
+        }
+        try (Connection connection = SandboxDataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (String schema : created) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + quote(schema) + " CASCADE");
+            }
+        } catch (SQLException e) {
+            log.warn("Dropping sandbox schemas failed: {}", e.getMessage());
+        }
+        if (ownerConnection != null) {
+            try (Connection connection = ownerConnection;
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("SELECT pg_advisory_unlock(" + LOCK_NAMESPACE + ", " + INSTANCE + ")");
+            } catch (SQLException e) {
+                log.warn("Releasing sandbox instance lock failed: {}", e.getMessage());
+            }
+            ownerConnection = null;
+        }
+    }
+
+    private static synchronized void claimInstance() throws SQLException {
+        if (ownerConnection != null && ownerConnection.isValid(5)) {
+            return;
+        }
+        if (ownerConnection != null) {
+            try {
+                ownerConnection.close();
+            } catch (SQLException e) {
+                log.debug("Closing stale sandbox owner connection failed: {}", e.getMessage());
+            }
+            ownerConnection = null;
+        }
+        Connection connection = SandboxDataSource.getConnection();
+        try (Statement stmt = connection.createStatement()) {
+            if (!tryLock(stmt, INSTANCE)) {
+                throw new SQLException("Nomor instance sandbox " + INSTANCE + " sedang dipakai aplikasi lain.");
+            }
+            dropStaleSchemas(stmt);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        ownerConnection = connection;
+    }
+
+    private static void dropStaleSchemas(Statement stmt) throws SQLException {
+        Map<Integer, List<String>> schemasByInstance = new TreeMap<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT nspname FROM pg_namespace WHERE nspname LIKE 'sandbox\\_%'")) {
+            while (rs.next()) {
+                Matcher name = SANDBOX_NAME.matcher(rs.getString(1));
+                if (!name.matches()) {
+                    continue;
+                }
+                try {
+                    int instance = Integer.parseInt(name.group(1));
+                    if (instance != INSTANCE) {
+                        schemasByInstance.computeIfAbsent(instance, i -> new ArrayList<>()).add(name.group());
+                    }
+                } catch (NumberFormatException e) {
+                    schemasByInstance.computeIfAbsent(0, i -> new ArrayList<>()).add(name.group());
+                }
+            }
+        }
+        for (Map.Entry<Integer, List<String>> entry : schemasByInstance.entrySet()) {
+            int instance = entry.getKey();
+            if (!tryLock(stmt, instance)) {
+                continue;
+            }
+            try {
+                for (String schema : entry.getValue()) {
+                    stmt.execute("DROP SCHEMA IF EXISTS " + quote(schema) + " CASCADE");
+                }
+                log.info("Dropped {} stale sandbox schemas of instance {}", entry.getValue().size(), instance);
+            } finally {
+                stmt.execute("SELECT pg_advisory_unlock(" + LOCK_NAMESPACE + ", " + instance + ")");
+            }
+        }
+    }
+
+    private static boolean tryLock(Statement stmt, int instance) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_NAMESPACE + ", " + instance + ")")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private static void rebuild(String schema) {
+        Thread.ofVirtual().name("sandbox-setup-" + schema).start(() -> {
+            try {
+                long start = System.nanoTime();
+                Lease lease = create(schema);
+                ready.add(lease);
+                log.debug("Sandbox {} ready in {} ms", schema, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (SQLException e) {
+                log.error("Creating sandbox {} failed: {}", schema, e.getMessage());
+                failed.add(schema);
+            }
+        });
+    }
+
+    private static void resetSequences(Connection connection, Lease lease) throws SQLException {
+        if (lease.sequences.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < lease.sequences.size(); i++) {
+            SequenceState sequence = lease.sequences.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("setval('").append(quote(lease.schema).replace("'", "''")).append('.')
+                    .append(quote(sequence.name()).replace("'", "''")).append("', ")
+                    .append(sequence.value()).append(", ").append(sequence.called()).append(')');
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql.toString());
+        }
+        connection.commit();
+    }
+
+    private static Lease create(String schema) throws SQLException {
+        claimInstance();
+        try (Connection connection = SandboxDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DROP SCHEMA IF EXISTS " + quote(schema) + " CASCADE");
+                stmt.execute("CREATE SCHEMA " + quote(schema));
+                stmt.execute("SET LOCAL search_path = " + quote(TEMPLATE));
+
+                List<String> sequenceDdl = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT s.sequencename, s.data_type, s.start_value, s.min_value, s.max_value, s.increment_by, "
+                                + "s.cycle, s.last_value FROM pg_sequences s WHERE s.schemaname = current_schema() "
+                                + "AND NOT EXISTS (SELECT 1 FROM pg_depend d WHERE d.objid = "
+                                + "(quote_ident(s.schemaname) || '.' || quote_ident(s.sequencename))::regclass AND d.deptype = 'i')")) {
+                    while (rs.next()) {
+                        String name = quote(rs.getString(1));
+                        sequenceDdl.add("CREATE SEQUENCE " + name + " AS " + rs.getString(2)
+                                + " START WITH " + rs.getLong(3) + " MINVALUE " + rs.getLong(4) + " MAXVALUE " + rs.getLong(5)
+                                + " INCREMENT BY " + rs.getLong(6) + (rs.getBoolean(7) ? " CYCLE" : " NO CYCLE"));
+                        long lastValue = rs.getLong(8);
+                        if (!rs.wasNull()) {
+                            sequenceDdl.add("SELECT setval('" + name.replace("'", "''") + "', " + lastValue + ", true)");
+                        }
+                    }
+                }
+
+                List<String> tableDdl = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT c.relname, string_agg(quote_ident(a.attname), ', ' ORDER BY a.attnum) "
+                                + "FILTER (WHERE a.attgenerated = '') "
+                                + "FROM pg_class c JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped "
+                                + "JOIN pg_namespace n ON n.oid = c.relnamespace "
+                                + "WHERE n.nspname = current_schema() AND c.relkind IN ('r', 'p') AND NOT c.relispartition "
+                                + "GROUP BY c.relname ORDER BY c.relname")) {
+                    while (rs.next()) {
+                        String table = quote(rs.getString(1));
+                        String columns = rs.getString(2);
+                        tableDdl.add("CREATE TABLE " + table + " (LIKE " + quote(TEMPLATE) + "." + table + " INCLUDING ALL)");
+                        tableDdl.add("INSERT INTO " + table + " (" + columns + ") OVERRIDING SYSTEM VALUE SELECT "
+                                + columns + " FROM " + quote(TEMPLATE) + "." + table);
+                    }
+                }
+
+                List<String> fixupDdl = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT table_name, column_name, column_default FROM information_schema.columns "
+                                + "WHERE table_schema = current_schema() AND column_default LIKE 'nextval(%'")) {
+                    while (rs.next()) {
+                        fixupDdl.add("ALTER TABLE " + quote(rs.getString(1)) + " ALTER COLUMN " + quote(rs.getString(2))
+                                + " SET DEFAULT " + rs.getString(3));
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT c.table_name, c.column_name, s.last_value FROM information_schema.columns c "
+                                + "JOIN pg_sequences s ON (quote_ident(s.schemaname) || '.' || quote_ident(s.sequencename))::regclass "
+                                + "= pg_get_serial_sequence(quote_ident(c.table_schema) || '.' || quote_ident(c.table_name), c.column_name)::regclass "
+                                + "WHERE c.table_schema = current_schema() AND c.is_identity = 'YES' AND s.last_value IS NOT NULL")) {
+                    while (rs.next()) {
+                        fixupDdl.add("SELECT setval(pg_get_serial_sequence('" + quote(rs.getString(1)).replace("'", "''")
+                                + "', '" + rs.getString(2).replace("'", "''") + "'), " + rs.getLong(3) + ", true)");
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT conrelid::regclass::text, conname, pg_get_constraintdef(oid) FROM pg_constraint "
+                                + "WHERE contype = 'f' AND conparentid = 0 "
+                                + "AND connamespace = (SELECT oid FROM pg_namespace WHERE nspname = current_schema()) ORDER BY conname")) {
+                    while (rs.next()) {
+                        fixupDdl.add("ALTER TABLE " + rs.getString(1) + " ADD CONSTRAINT " + quote(rs.getString(2)) + " " + rs.getString(3));
+                    }
+                }
+
+                stmt.execute("SET LOCAL search_path = " + quote(schema));
+                for (String sql : sequenceDdl) {
+                    stmt.execute(sql);
+                }
+                for (String sql : tableDdl) {
+                    stmt.execute(sql);
+                }
+                for (String sql : fixupDdl) {
+                    stmt.execute(sql);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            return new Lease(schema, readSequences(connection, schema));
+        }
+    }
+
+    private static List<SequenceState> readSequences(Connection connection, String schema) throws SQLException {
+        List<SequenceState> sequences = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT sequencename, coalesce(last_value, start_value), last_value IS NOT NULL FROM pg_sequences WHERE schemaname = ?")) {
+            stmt.setString(1, schema);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sequences.add(new SequenceState(rs.getString(1), rs.getLong(2), rs.getBoolean(3)));
+                }
+            }
+        }
+        connection.commit();
+        return sequences;
+    }
+
+    static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
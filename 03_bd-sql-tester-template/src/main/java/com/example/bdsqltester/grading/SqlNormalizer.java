@@ -0,0 +1,221 @@
+package com.example.bdsqltester.grading;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+
+public class SqlNormalizer {
+    private static final String OPERATOR_CHARS = "+-*/<>=~!@#%^&|`?:";
+
+    private enum Kind { NONE, WORD, OPERATOR, LITERAL, OTHER }
+
+    private SqlNormalizer() {
+    }
+
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        Kind previous = Kind.NONE;
+        boolean pendingSpace = false;
+        boolean pendingNewline = false;
+        int i = 0;
+        int length = sql.length();
+
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                pendingNewline |= c == '\n';
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i);
+                pendingSpace = true;
+                continue;
+            }
+
+            Kind kind;
+            int end;
+            if (c == '\'') {
+                kind = Kind.LITERAL;
+                end = skipQuoted(sql, i, '\'', isEscapeString(sql, i));
+            } else if (c == '"') {
+                kind = Kind.LITERAL;
+                end = skipQuoted(sql, i, '"', false);
+            } else if (c == '$' && dollarTagEnd(sql, i) > 0) {
+                kind = Kind.LITERAL;
+                end = skipDollarQuoted(sql, i);
+            } else if (isWordChar(c)) {
+                kind = Kind.WORD;
+                end = i + 1;
+                while (end < length && isWordChar(sql.charAt(end))) {
+                    end++;
+                }
+            } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                kind = Kind.OPERATOR;
+                end = i + 1;
+            } else {
+                kind = Kind.OTHER;
+                end = i + 1;
+            }
+
+            if (pendingSpace && previous != Kind.NONE) {
+                appendSeparator(out, previous, kind, pendingNewline);
+            }
+            if (kind == Kind.LITERAL) {
+                out.append(sql, i, end);
+            } else {
+                out.append(sql.substring(i, end).toLowerCase(Locale.ROOT));
+            }
+            previous = kind;
+            pendingSpace = false;
+            pendingNewline = false;
+            i = end;
+        }
+
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ';' || out.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    public static String fingerprint(String sql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(normalize(sql).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String topLevel(String sql) {
+        String normalized = normalize(sql);
+        StringBuilder out = new StringBuilder(normalized.length());
+        int depth = 0;
+        int i = 0;
+        while (i < normalized.length()) {
+            char c = normalized.charAt(i);
+            int end;
+            if (c == '\'') {
+                end = skipQuoted(normalized, i, '\'', isEscapeString(normalized, i));
+            } else if (c == '"') {
+                end = skipQuoted(normalized, i, '"', false);
+            } else if (c == '$' && dollarTagEnd(normalized, i) > 0) {
+                end = skipDollarQuoted(normalized, i);
+            } else {
+                if (c == '(') {
+                    if (depth == 0) {
+                        out.append(' ');
+                    }
+                    depth++;
+                } else if (c == ')') {
+                    depth = Math.max(0, depth - 1);
+                } else if (depth == 0) {
+                    out.append(c);
+                }
+                i++;
+                continue;
+            }
+            if (depth == 0) {
+                out.append("''");
+            }
+            i = end;
+        }
+        return out.toString();
+    }
+
+    private static void appendSeparator(StringBuilder out, Kind previous, Kind next, boolean newline) {
+        if (previous == Kind.LITERAL && next == Kind.LITERAL) {
+            out.append(newline ? '\n' : ' ');
+        } else if (previous == next && previous != Kind.OTHER
+                || previous == Kind.WORD && next == Kind.LITERAL
+                || previous == Kind.LITERAL && next == Kind.WORD) {
+            out.append(' ');
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.' || c > 127;
+    }
+
+    private static boolean isEscapeString(String sql, int quote) {
+        if (quote == 0 || Character.toLowerCase(sql.charAt(quote - 1)) != 'e') {
+            return false;
+        }
+        return quote == 1 || !isWordChar(sql.charAt(quote - 2));
+    }
+
+    private static int skipQuoted(String sql, int start, char quote, boolean backslashEscapes) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return sql.length();
+    }
+
+    private static int skipBlockComment(String sql, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < sql.length()) {
+            if (sql.startsWith("/*", i)) {
+                depth++;
+                i += 2;
+            } else if (sql.startsWith("*/", i)) {
+                depth--;
+                i += 2;
+                if (depth == 0) {
+                    return i;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static int dollarTagEnd(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '$') {
+                return i + 1;
+            }
+            if (!(Character.isLetter(c) || c == '_' || (i > start + 1 && Character.isDigit(c)))) {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipDollarQuoted(String sql, int start) {
+        int tagEnd = dollarTagEnd(sql, start);
+        String tag = sql.substring(start, tagEnd);
+        int close = sql.indexOf(tag, tagEnd);
+        return close < 0 ? sql.length() : close + tag.length();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bdsqltester.grading;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class SubmissionCache {
+    private static final int MAX_ENTRIES = Integer.getInteger("bdsqltester.grading.submissionCacheSize", 4096);
+
+    private static final Pattern VOLATILE = Pattern.compile("\\b(now|today|tomorrow|yesterday|random|random_normal|setseed"
+            + "|clock_timestamp|statement_timestamp|transaction_timestamp|timeofday"
+            + "|current_date|current_time|current_timestamp|localtime|localtimestamp"
+            + "|nextval|currval|lastval|setval|gen_random_uuid|uuid_generate_v1|uuid_generate_v4"
+            + "|txid_current|pg_current_xact_id)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Map<Key, GradingResult> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, GradingResult> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public record Key(AnswerKeyCache.Key answerKey, String submissionFingerprint) {
+    }
+
+    private SubmissionCache() {
+    }
+
+    public static boolean isCacheable(String submission) {
+        return !VOLATILE.matcher(SqlNormalizer.normalize(submission)).find();
+    }
+
+    public static Key key(AnswerKeyCache.Key answerKey, String submission) {
+        return new Key(answerKey, SqlNormalizer.fingerprint(submission));
+    }
+
+    public static synchronized GradingResult get(Key key) {
+        return entries.get(key);
+    }
+
+    public static synchronized void put(Key key, GradingResult result) {
+        entries.put(key, result);
+    }
+
+    public static synchronized void invalidate(long assignmentId) {
+        entries.keySet().removeIf(key -> key.answerKey().assignmentId() == assignmentId);
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+    }
+}
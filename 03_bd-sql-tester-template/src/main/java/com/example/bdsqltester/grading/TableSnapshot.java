@@ -0,0 +1,89 @@
+package com.example.bdsqltester.grading;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class TableSnapshot {
+    private final Map<String, List<String>> columns;
+    private final Map<String, ResultFingerprint> contents;
+    private final ResultFingerprint lastResult;
+
+    private TableSnapshot(Map<String, List<String>> columns, Map<String, ResultFingerprint> contents,
+                          ResultFingerprint lastResult) {
+        this.columns = columns;
+        this.contents = contents;
+        this.lastResult = lastResult;
+    }
+
+    static TableSnapshot capture(Connection connection, String schema, ResultFingerprint lastResult) throws SQLException {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT c.relname, a.attname || ' ' || format_type(a.atttypid, a.atttypmod) "
+                        + "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                        + "JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped "
+                        + "WHERE n.nspname = ? AND c.relkind IN ('r', 'p') ORDER BY c.relname, a.attnum")) {
+            stmt.setString(1, schema);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.computeIfAbsent(rs.getString(1), table -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+        }
+
+        Map<String, ResultFingerprint> contents = new LinkedHashMap<>();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(GradingEngine.FETCH_SIZE);
+            for (String table : columns.keySet()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + SandboxSchemas.quote(schema) + "." + SandboxSchemas.quote(table))) {
+                    contents.put(table, ResultFingerprint.of(rs));
+                }
+            }
+        }
+        return new TableSnapshot(columns, contents, lastResult);
+    }
+
+    public static GradingResult compare(TableSnapshot expected, TableSnapshot actual) {
+        for (String table : expected.columns.keySet()) {
+            if (!actual.columns.containsKey(table)) {
+                return GradingResult.wrong("Tabel " + table + " tidak ada setelah jawaban dijalankan.");
+            }
+        }
+        for (String table : actual.columns.keySet()) {
+            if (!expected.columns.containsKey(table)) {
+                return GradingResult.wrong("Tabel " + table + " seharusnya tidak ada.");
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : expected.columns.entrySet()) {
+            if (!entry.getValue().equals(actual.columns.get(entry.getKey()))) {
+                return GradingResult.wrong("Struktur tabel " + entry.getKey() + " berbeda: diharapkan ("
+                        + String.join(", ", entry.getValue()) + "), didapat ("
+                        + String.join(", ", actual.columns.get(entry.getKey())) + ").");
+            }
+        }
+        for (Map.Entry<String, ResultFingerprint> entry : expected.contents.entrySet()) {
+            ResultFingerprint actualContents = actual.contents.get(entry.getKey());
+            if (!entry.getValue().equals(actualContents)) {
+                return GradingResult.wrong("Isi tabel " + entry.getKey() + " tidak sesuai: diharapkan "
+                        + entry.getValue().getRowCount() + " baris, didapat " + actualContents.getRowCount() + " baris.");
+            }
+        }
+        if (expected.lastResult != null) {
+            if (actual.lastResult == null) {
+                return GradingResult.wrong("Jawaban tidak menghasilkan tabel hasil.");
+            }
+            if (!Objects.equals(expected.lastResult, actual.lastResult)) {
+                GradingResult result = ResultComparator.compareFingerprints(expected.lastResult, actual.lastResult);
+                return result != null ? result : GradingResult.wrong("Hasil query tidak sesuai dengan kunci jawaban.");
+            }
+        }
+        return GradingResult.correct();
+    }
+}
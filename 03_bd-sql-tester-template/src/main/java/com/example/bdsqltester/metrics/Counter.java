@@ -0,0 +1,30 @@
+package com.example.bdsqltester.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class Counter extends Metric {
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String labels, String help) {
+        super(name, labels, help);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public String getType() {
+        return "counter";
+    }
+
+    @Override
+    public void samples(BiConsumer<String, Number> sink) {
+        sink.accept("", getCount());
+    }
+}
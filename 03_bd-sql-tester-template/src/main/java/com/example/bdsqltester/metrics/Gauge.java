@@ -0,0 +1,27 @@
+package com.example.bdsqltester.metrics;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+public class Gauge extends Metric {
+    private final Supplier<? extends Number> value;
+
+    Gauge(String name, String labels, String help, Supplier<? extends Number> value) {
+        super(name, labels, help);
+        this.value = value;
+    }
+
+    public Number getValue() {
+        return value.get();
+    }
+
+    @Override
+    public String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public void samples(BiConsumer<String, Number> sink) {
+        sink.accept("", getValue());
+    }
+}
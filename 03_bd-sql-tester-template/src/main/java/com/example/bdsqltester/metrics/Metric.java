@@ -0,0 +1,35 @@
+package com.example.bdsqltester.metrics;
+
+import java.util.function.BiConsumer;
+
+public abstract class Metric {
+    private final String name;
+    private final String labels;
+    private final String help;
+
+    protected Metric(String name, String labels, String help) {
+        this.name = name;
+        this.labels = labels;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLabels() {
+        return labels;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public abstract String getType();
+
+    public abstract void samples(BiConsumer<String, Number> sink);
+
+    String id() {
+        return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bdsqltester.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class Metrics {
+    private static final Logger log = LoggerFactory.getLogger(Metrics.class);
+
+    public static final String JMX_NAME = "com.example.bdsqltester:type=Metrics";
+
+    private static final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), new ObjectName(JMX_NAME));
+        } catch (JMException e) {
+            log.warn("Could not register metrics MBean: {}", e.getMessage());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help) {
+        return counter(name, "", help);
+    }
+
+    public static Counter counter(String name, String labels, String help) {
+        return register(name, labels, id -> new Counter(name, labels, help), Counter.class);
+    }
+
+    public static Timer timer(String name, String help) {
+        return timer(name, "", help);
+    }
+
+    public static Timer timer(String name, String labels, String help) {
+        return register(name, labels, id -> new Timer(name, labels, help), Timer.class);
+    }
+
+    public static Gauge gauge(String name, String labels, String help, Supplier<? extends Number> value) {
+        Gauge gauge = new Gauge(name, labels, help, value);
+        metrics.put(gauge.id(), gauge);
+        return gauge;
+    }
+
+    public static Gauge gauge(String name, String help, Supplier<? extends Number> value) {
+        return gauge(name, "", help, value);
+    }
+
+    public static List<Metric> all() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    private static <T extends Metric> T register(String name, String labels, Function<String, Metric> factory, Class<T> type) {
+        String id = labels.isEmpty() ? name : name + "{" + labels + "}";
+        Metric metric = metrics.computeIfAbsent(id, factory);
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + id + " is already registered as " + metric.getType());
+        }
+        return type.cast(metric);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bdsqltester.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class MetricsMBean implements DynamicMBean {
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            if (values.containsKey(attribute)) {
+                list.add(new Attribute(attribute, values.get(attribute)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) {
+        throw new UnsupportedOperationException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : snapshot().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                    entry.getKey(), true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "bd-sql-tester metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+
+    private static Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Metric metric : Metrics.all()) {
+            String labels = metric.getLabels().isEmpty() ? ""
+                    : "." + metric.getLabels().replaceAll("[\"{}]", "").replace('=', '_').replace(',', '.');
+            metric.samples((suffix, value) -> values.put(metric.getName() + suffix + labels, value));
+        }
+        return values;
+    }
+}
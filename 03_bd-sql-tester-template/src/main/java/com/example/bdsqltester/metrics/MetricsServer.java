@@ -0,0 +1,95 @@
+package com.example.bdsqltester.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+public class MetricsServer {
+    private static final Logger log = LoggerFactory.getLogger(MetricsServer.class);
+
+    private static final int PORT = Integer.getInteger("bdsqltester.metrics.port", 9464);
+
+    private static HttpServer server;
+
+    private MetricsServer() {
+    }
+
+    public static synchronized void start() {
+        if (PORT < 0 || server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), 0);
+        } catch (IOException e) {
+            log.warn("Metrics endpoint not started on port {}: {}", PORT, e.getMessage());
+            return;
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        log.info("Metrics endpoint listening on http://127.0.0.1:{}/metrics", server.getAddress().getPort());
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    public static String scrape() {
+        Map<String, Family> families = new LinkedHashMap<>();
+        for (Metric metric : Metrics.all()) {
+            String labels = metric.getLabels().isEmpty() ? "" : "{" + metric.getLabels() + "}";
+            Family family = families.computeIfAbsent(metric.getName(),
+                    name -> new Family(metric.getType(), metric.getHelp()));
+            metric.samples((suffix, value) -> {
+                if (metric instanceof Timer && suffix.equals("_max")) {
+                    families.computeIfAbsent(metric.getName() + "_max",
+                                    name -> new Family("gauge", metric.getHelp() + " (maximum)"))
+                            .add(metric.getName() + "_max", labels, value);
+                } else {
+                    family.add(metric.getName() + suffix, labels, value);
+                }
+            });
+        }
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            out.append(family.samples);
+        });
+        return out.toString();
+    }
+
+    private static class Family {
+        private final String type;
+        private final String help;
+        private final StringBuilder samples = new StringBuilder();
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        private void add(String name, String labels, Number value) {
+            samples.append(name).append(labels).append(' ').append(value).append('\n');
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bdsqltester.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        String labels = "pool=\"" + poolName + "\"";
+        Metrics.gauge("pool_active_connections", labels, "Connections in use", stats::getActiveConnections);
+        Metrics.gauge("pool_idle_connections", labels, "Idle connections", stats::getIdleConnections);
+        Metrics.gauge("pool_pending_threads", labels, "Threads waiting for a connection", stats::getPendingThreads);
+        Metrics.gauge("pool_total_connections", labels, "Open connections", stats::getTotalConnections);
+        Metrics.gauge("pool_max_connections", labels, "Maximum pool size", stats::getMaxConnections);
+
+        Timer acquire = Metrics.timer("pool_acquire_seconds", labels, "Time spent waiting to borrow a connection");
+        Timer usage = Metrics.timer("pool_usage_seconds", labels, "Time a borrowed connection was held");
+        Timer creation = Metrics.timer("pool_connection_create_seconds", labels, "Time to open a new physical connection");
+        Counter timeouts = Metrics.counter("pool_timeouts_total", labels, "Connection requests that timed out");
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creation.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bdsqltester.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class Timer extends Metric {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    Timer(String name, String labels, String help) {
+        super(name, labels, help);
+    }
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getAverageMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (n * 1_000_000.0);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String getType() {
+        return "summary";
+    }
+
+    @Override
+    public void samples(BiConsumer<String, Number> sink) {
+        sink.accept("_count", getCount());
+        sink.accept("_sum", totalNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1));
+        sink.accept("_max", maxNanos.get() / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bdsqltester.repositories;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+public class AssignmentRepository {
+    public static final RowMapper<Assignment> ASSIGNMENT = metaData -> {
+        int id = RowMapper.column(metaData, "id");
+        int name = RowMapper.column(metaData, "name");
+        int instructions = RowMapper.column(metaData, "instructions");
+        int answerKey = RowMapper.column(metaData, "answer_key");
+        return rs -> new Assignment(rs.getLong(id), rs.getString(name), rs.getString(instructions), rs.getString(answerKey));
+    };
+
+    public static final RowMapper<AssignmentSummary> SUMMARY = metaData -> {
+        int id = RowMapper.column(metaData, "id");
+        int name = RowMapper.column(metaData, "name");
+        return rs -> new AssignmentSummary(rs.getLong(id), rs.getString(name));
+    };
+
+    private AssignmentRepository() {
+    }
+
+    public static List<AssignmentSummary> findAllSummaries() throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM assignments ORDER BY id")) {
+            return SUMMARY.list(rs);
+        }
+    }
+
+    public static Optional<AssignmentSummary> findSummary(long assignmentId) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT id, name FROM assignments WHERE id = ?")) {
+            stmt.setLong(1, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return SUMMARY.first(rs);
+            }
+        }
+    }
+
+    public static Optional<Assignment> findById(long assignmentId) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT id, name, instructions, answer_key FROM assignments WHERE id = ?")) {
+            stmt.setLong(1, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ASSIGNMENT.first(rs);
+            }
+        }
+    }
+
+    public static long insert(String name, String instructions, String answerKey) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "INSERT INTO assignments (name, instructions, answer_key) VALUES (?, ?, ?) RETURNING id")) {
+            stmt.setString(1, name);
+            stmt.setString(2, instructions);
+            stmt.setString(3, answerKey);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public static boolean update(long assignmentId, String name, String instructions, String answerKey) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "UPDATE assignments SET name = ?, instructions = ?, answer_key = ? WHERE id = ?")) {
+            stmt.setString(1, name);
+            stmt.setString(2, instructions);
+            stmt.setString(3, answerKey);
+            stmt.setLong(4, assignmentId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public static boolean delete(long assignmentId) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("DELETE FROM assignments WHERE id = ?")) {
+            stmt.setLong(1, assignmentId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
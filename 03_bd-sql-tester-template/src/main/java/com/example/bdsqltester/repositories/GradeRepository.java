@@ -0,0 +1,87 @@
+package com.example.bdsqltester.repositories;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.Grade;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.OptionalDouble;
+
+public class GradeRepository {
+    private static final String SAVE_SQL =
+            "WITH submitted AS (" +
+                    "INSERT INTO submissions (assignment_id, user_id, answer, grade) VALUES (?, ?, ?, ?)) " +
+                    "INSERT INTO grades (assignment_id, user_id, grade) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (assignment_id, user_id) DO UPDATE SET grade = GREATEST(grades.grade, EXCLUDED.grade) " +
+                    "RETURNING grade";
+
+    private static final String PAGE_SQL =
+            "SELECT g.user_id, g.assignment_id, u.username, g.grade FROM grades g JOIN users u ON g.user_id = u.id " +
+                    "WHERE g.assignment_id = ? AND g.user_id > ? ORDER BY g.user_id LIMIT ?";
+
+    public static final RowMapper<Grade> GRADE = metaData -> {
+        int userId = RowMapper.column(metaData, "user_id");
+        int assignmentId = RowMapper.column(metaData, "assignment_id");
+        int username = RowMapper.column(metaData, "username");
+        int grade = RowMapper.column(metaData, "grade");
+        return rs -> new Grade(rs.getLong(userId), rs.getLong(assignmentId), rs.getString(username), rs.getDouble(grade));
+    };
+
+    private GradeRepository() {
+    }
+
+    public static List<Grade> findPage(long assignmentId, long afterUserId, int limit) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(PAGE_SQL)) {
+            stmt.setLong(1, assignmentId);
+            stmt.setLong(2, afterUserId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return GRADE.list(rs);
+            }
+        }
+    }
+
+    public static OptionalDouble findGrade(long assignmentId, long userId) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT grade FROM grades WHERE assignment_id = ? AND user_id = ?")) {
+            stmt.setLong(1, assignmentId);
+            stmt.setLong(2, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? OptionalDouble.of(rs.getDouble(1)) : OptionalDouble.empty();
+            }
+        }
+    }
+
+    public static long countSubmissionsSince(int seconds) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT count(*) FROM submissions WHERE submitted_at > now() - make_interval(secs => ?)")) {
+            stmt.setInt(1, seconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public static double saveSubmission(long assignmentId, long userId, String answer, double grade) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SAVE_SQL)) {
+            stmt.setLong(1, assignmentId);
+            stmt.setLong(2, userId);
+            stmt.setString(3, answer);
+            stmt.setDouble(4, grade);
+            stmt.setLong(5, assignmentId);
+            stmt.setLong(6, userId);
+            stmt.setDouble(7, grade);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+}
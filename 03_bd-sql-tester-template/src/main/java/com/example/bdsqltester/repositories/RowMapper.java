@@ -0,0 +1,44 @@
+package com.example.bdsqltester.repositories;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    Reader<T> bind(ResultSetMetaData metaData) throws SQLException;
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    static int column(ResultSetMetaData metaData, String label) throws SQLException {
+        for (int i = 1, count = metaData.getColumnCount(); i <= count; i++) {
+            if (metaData.getColumnLabel(i).equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        throw new SQLException("Kolom " + label + " tidak ada di hasil query.");
+    }
+
+    default List<T> list(ResultSet rs) throws SQLException {
+        Reader<T> reader = bind(rs.getMetaData());
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(reader.read(rs));
+        }
+        return rows;
+    }
+
+    default Optional<T> first(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return Optional.empty();
+        }
+        return Optional.of(bind(rs.getMetaData()).read(rs));
+    }
+}
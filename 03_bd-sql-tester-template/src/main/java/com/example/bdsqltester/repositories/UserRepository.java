@@ -0,0 +1,91 @@
+package com.example.bdsqltester.repositories;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+public class UserRepository {
+    public record Credentials(User user, String password) {
+    }
+
+    public static final RowMapper<User> USER = metaData -> {
+        int id = RowMapper.column(metaData, "id");
+        int username = RowMapper.column(metaData, "username");
+        return rs -> new User(rs.getLong(id), rs.getString(username));
+    };
+
+    public static final RowMapper<Credentials> CREDENTIALS = metaData -> {
+        RowMapper.Reader<User> user = USER.bind(metaData);
+        int password = RowMapper.column(metaData, "password");
+        return rs -> new Credentials(user.read(rs), rs.getString(password));
+    };
+
+    private UserRepository() {
+    }
+
+    public static Optional<Credentials> findCredentials(String username, String role) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT id, username, password FROM users WHERE username = ? AND role = ?")) {
+            stmt.setString(1, username);
+            stmt.setString(2, role);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return CREDENTIALS.first(rs);
+            }
+        }
+    }
+
+    public static List<Credentials> findWithoutPasswordPrefix(String prefix, long afterId, int limit) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT id, username, password FROM users WHERE id > ? AND password NOT LIKE ? ORDER BY id LIMIT ?")) {
+            stmt.setLong(1, afterId);
+            stmt.setString(2, prefix + "%");
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return CREDENTIALS.list(rs);
+            }
+        }
+    }
+
+    public static boolean updatePassword(long userId, String previous, String hashed) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("UPDATE users SET password = ? WHERE id = ? AND password = ?")) {
+            stmt.setString(1, hashed);
+            stmt.setLong(2, userId);
+            stmt.setString(3, previous);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public static int updatePasswords(List<Credentials> batch, List<String> hashes) throws SQLException {
+        try (Connection connection = MainDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement("UPDATE users SET password = ? WHERE id = ? AND password = ?")) {
+                for (int i = 0; i < batch.size(); i++) {
+                    update.setString(1, hashes.get(i));
+                    update.setLong(2, batch.get(i).user().getId());
+                    update.setString(3, batch.get(i).password());
+                    update.addBatch();
+                }
+                int updated = 0;
+                for (int count : update.executeBatch()) {
+                    if (count > 0) {
+                        updated += count;
+                    }
+                }
+                connection.commit();
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bdsqltester.scenes;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+public class Background {
+    private Background() {
+    }
+
+    public static <T> CompletableFuture<T> call(String name, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Thread.ofVirtual().name(name).start(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bdsqltester.scenes;
+
+import com.example.bdsqltester.client.GradingClient;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+public class CatalogListener {
+    private final Node node;
+    private final Runnable listener;
+    private final ChangeListener<Window> windowListener = (observable, oldWindow, window) -> update();
+    private boolean registered;
+
+    private CatalogListener(Node node, Runnable onChanged) {
+        this.node = node;
+        this.listener = () -> Platform.runLater(onChanged);
+    }
+
+    public static void bind(Node node, Runnable onChanged) {
+        CatalogListener binding = new CatalogListener(node, onChanged);
+        node.sceneProperty().addListener((observable, oldScene, scene) -> binding.sceneChanged(oldScene, scene));
+        binding.sceneChanged(null, node.getScene());
+    }
+
+    private void sceneChanged(Scene oldScene, Scene scene) {
+        if (oldScene != null) {
+            oldScene.windowProperty().removeListener(windowListener);
+        }
+        if (scene != null) {
+            scene.windowProperty().addListener(windowListener);
+        }
+        update();
+    }
+
+    private void update() {
+        Scene scene = node.getScene();
+        boolean showing = scene != null && scene.getWindow() != null;
+        if (showing && !registered) {
+            GradingClient.addCatalogListener(listener);
+        } else if (!showing && registered) {
+            GradingClient.removeCatalogListener(listener);
+        }
+        registered = showing;
+    }
+}
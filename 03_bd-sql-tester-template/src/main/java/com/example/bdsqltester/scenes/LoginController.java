@@ -1,20 +1,38 @@
 package com.example.bdsqltester.scenes;
 
 import com.example.bdsqltester.HelloApplication;
-import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.client.GradingClient;
+import com.example.bdsqltester.dtos.User;
+import com.example.bdsqltester.scenes.admin.AdminController;
+import com.example.bdsqltester.scenes.user.UserViewController;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.sql.*;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginController {
+    private static final Logger log = LoggerFactory.getLogger(LoginController.class);
+
+    private static final ExecutorService background = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("login-", 0).factory());
 
     @FXML
     private TextField passwordField;
@@ -25,6 +43,12 @@ public class LoginController {
     @FXML
     private TextField usernameField;
 
+    @FXML
+    private Button loginButton;
+
+    private String prefetchedRole;
+    private CompletableFuture<FXMLLoader> prefetchedView;
+
     @FXML
     void initialize() {
         selectRole.getItems().addAll("Admin", "User");
@@ -37,56 +61,84 @@ public class LoginController {
         String password = passwordField.getText();
         String role = selectRole.getValue();
 
-        try {
-            try (Connection c = MainDataSource.getConnection()) {
-                PreparedStatement stmt = c.prepareStatement("SELECT id, password FROM users WHERE username = ? AND role = ?");
-                stmt.setString(1, username);
-                stmt.setString(2, role.toLowerCase());
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    String dbPassword = rs.getString("password");
-                    if (dbPassword.equals(password)) {
-                        Long currentUserId = rs.getLong("id");
-
-                        HelloApplication app = HelloApplication.getApplicationInstance();
-                        Stage primaryStage = app.getPrimaryStage();
-
-                        if (role.equals("Admin")) {
-                            primaryStage.setTitle("Admin View");
-                            FXMLLoader loader = new FXMLLoader(HelloApplication.class.getResource("admin-view.fxml"));
-                            Scene scene = new Scene(loader.load());
-                            primaryStage.setScene(scene);
-                        } else {
-                            primaryStage.setTitle("User View");
-                            FXMLLoader loader = new FXMLLoader(HelloApplication.class.getResource("user-view.fxml"));
-                            loader.setControllerFactory(param -> new com.example.bdsqltester.scenes.user.UserViewController(currentUserId));
-                            Scene scene = new Scene(loader.load());
-                            primaryStage.setScene(scene);
-                        }
-                    } else {
-                        Alert alert = new Alert(Alert.AlertType.ERROR);
-                        alert.setTitle("Login Failed");
-                        alert.setHeaderText("Invalid Credentials");
-                        alert.setContentText("Please check your username and password.");
-                        alert.showAndWait();
-                    }
-                } else {
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Login Failed");
-                    alert.setHeaderText("Invalid Credentials");
-                    alert.setContentText("Please check your username and password.");
-                    alert.showAndWait();
-                }
+        loginButton.setDisable(true);
+        CompletableFuture<FXMLLoader> view = prefetchView(role);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return GradingClient.login(username, password, role.toLowerCase());
+            } catch (SQLException e) {
+                throw new CompletionException(e);
             }
-        } catch (SQLException e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Database Error");
-            alert.setHeaderText("Database Connection Failed");
-            alert.setContentText("Could not connect to the database. Please try again later.");
-            alert.showAndWait();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        }, background).whenComplete((user, error) -> Platform.runLater(() -> {
+            loginButton.setDisable(false);
+            onAuthenticated(role, user, error, view);
+        }));
+    }
+
+    private void onAuthenticated(String role, Optional<User> user, Throwable error, CompletableFuture<FXMLLoader> view) {
+        if (error instanceof CompletionException && error.getCause() instanceof RejectedExecutionException busy) {
+            showAlert("Login Failed", "Server Busy", busy.getMessage());
+            return;
+        }
+        if (error != null) {
+            log.warn("Login failed", error);
+            showAlert("Database Error", "Database Connection Failed", "Could not connect to the database. Please try again later.");
+            return;
+        }
+        if (user.isEmpty()) {
+            showAlert("Login Failed", "Invalid Credentials", "Please check your username and password.");
+            return;
         }
+
+        prefetchedView = null;
+        loginButton.setDisable(true);
+        view.whenComplete((loader, loadError) -> Platform.runLater(() -> {
+            loginButton.setDisable(false);
+            if (loadError != null) {
+                Throwable cause = loadError instanceof CompletionException ? loadError.getCause() : loadError;
+                cause.printStackTrace();
+                showAlert("Error", "View Failed to Load", "Could not open the " + role + " view: " + cause.getMessage());
+                return;
+            }
+            showView(role, loader);
+        }));
+    }
+
+    private CompletableFuture<FXMLLoader> prefetchView(String role) {
+        if (prefetchedView != null && role.equals(prefetchedRole) && !prefetchedView.isCompletedExceptionally()) {
+            return prefetchedView;
+        }
+        prefetchedRole = role;
+        prefetchedView = CompletableFuture.supplyAsync(() -> {
+            FXMLLoader loader = new FXMLLoader(HelloApplication.class.getResource(
+                    role.equals("Admin") ? "admin-view.fxml" : "user-view.fxml"));
+            try {
+                loader.load();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return loader;
+        }, background);
+        return prefetchedView;
+    }
+
+    private void showView(String role, FXMLLoader loader) {
+        Stage primaryStage = HelloApplication.getApplicationInstance().getPrimaryStage();
+        primaryStage.setScene(new Scene(loader.<Parent>getRoot()));
+        if (role.equals("Admin")) {
+            primaryStage.setTitle("Admin View");
+            loader.<AdminController>getController().onShown();
+        } else {
+            primaryStage.setTitle("User View");
+            loader.<UserViewController>getController().onShown();
+        }
+    }
+
+    private void showAlert(String title, String header, String content) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(header);
+        alert.setContentText(content);
+        alert.showAndWait();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.example.bdsqltester.scenes;
+
+import com.example.bdsqltester.grading.GradingScheduler;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.LocalEngine;
+import com.example.bdsqltester.services.QueryCursor;
+import com.example.bdsqltester.services.QueryHandle;
+import com.example.bdsqltester.services.ResultBuffer;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ResultTablePager {
+    private static final Logger log = LoggerFactory.getLogger(ResultTablePager.class);
+
+    private static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_ROWS = 50;
+
+    private final TableView<Integer> table;
+    private final Label statusLabel;
+    private final List<ResultBuffer> pages = new ArrayList<>();
+    private QueryCursor cursor;
+    private String engineNote;
+    private boolean loading;
+    private long generation;
+
+    public ResultTablePager(TableView<Integer> table, Label statusLabel) {
+        this.table = table;
+        this.statusLabel = statusLabel;
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= tv.getItems().size() - PREFETCH_ROWS) {
+                    loadMore();
+                }
+            }
+        });
+    }
+
+    public void run(String sql, ExecutionLimits limits, QueryHandle handle) {
+        run(sql, limits, handle, false);
+    }
+
+    public void run(String sql, ExecutionLimits limits, QueryHandle handle, boolean local) {
+        clear();
+        long runGeneration = generation;
+        loading = true;
+        statusLabel.setText("Menjalankan query...");
+
+        GradingScheduler.submit(() -> {
+            String note = null;
+            QueryCursor opened = null;
+            if (local && LocalEngine.isReady()) {
+                try {
+                    opened = QueryCursor.openLocal(sql, limits, handle, PAGE_SIZE);
+                    note = localNote(sql);
+                } catch (LimitExceededException e) {
+                    throw e;
+                } catch (SQLException e) {
+                    log.debug("Local engine could not run query, using server: {}", e.getMessage());
+                    note = "Mesin lokal tidak dapat menjalankan query ini, jadi query dijalankan di server.";
+                }
+            }
+            if (opened == null) {
+                opened = QueryCursor.open(sql, limits, handle, PAGE_SIZE);
+            }
+            try {
+                return new FirstPage(opened, opened.fetch(PAGE_SIZE), note);
+            } catch (SQLException e) {
+                opened.close();
+                throw e;
+            }
+        }).whenComplete((page, error) -> Platform.runLater(() -> {
+            if (runGeneration != generation) {
+                if (page != null) {
+                    closeInBackground(page.cursor());
+                }
+                return;
+            }
+            loading = false;
+            if (error != null) {
+                showError(error);
+                return;
+            }
+
+            cursor = page.cursor();
+            engineNote = page.note();
+            List<String> columnNames = cursor.getColumnNames();
+            for (int i = 0; i < columnNames.size(); i++) {
+                int columnIndex = i;
+                TableColumn<Integer, String> column = new TableColumn<>(columnNames.get(i));
+                column.setCellValueFactory(cell -> {
+                    int row = cell.getValue();
+                    String value = pages.get(row / PAGE_SIZE).getString(row % PAGE_SIZE, columnIndex);
+                    return new ReadOnlyStringWrapper(value == null ? "NULL" : value);
+                });
+                table.getColumns().add(column);
+            }
+            addPage(page.rows());
+            updateStatus();
+        }));
+    }
+
+    private void loadMore() {
+        QueryCursor current = cursor;
+        if (current == null || loading || current.isExhausted()) {
+            return;
+        }
+        long runGeneration = generation;
+        loading = true;
+
+        GradingScheduler.submit(() -> current.fetch(PAGE_SIZE)).whenComplete((rows, error) -> Platform.runLater(() -> {
+            if (runGeneration != generation) {
+                return;
+            }
+            loading = false;
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            addPage(rows);
+            updateStatus();
+        }));
+    }
+
+    private void addPage(ResultBuffer page) {
+        if (page.size() == 0) {
+            return;
+        }
+        int first = pages.size() * PAGE_SIZE;
+        pages.add(page);
+        List<Integer> rows = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            rows.add(first + i);
+        }
+        table.getItems().addAll(rows);
+    }
+
+    private void updateStatus() {
+        StringBuilder status = new StringBuilder();
+        status.append(table.getItems().size()).append(" baris dimuat");
+        if (!cursor.isExhausted()) {
+            status.append(", gulir ke bawah untuk memuat lebih banyak");
+        }
+        status.append(String.format(" (menunggu koneksi %d ms, eksekusi %d ms)",
+                cursor.getAcquireWaitMillis(), cursor.getOpenMillis()));
+        if (cursor.getPlan() != null) {
+            status.append("\n").append(cursor.getPlan().summary());
+        }
+        if (cursor.getLimitHit() != null) {
+            status.append("\n").append(cursor.getLimitHit().getMessage());
+        }
+        if (engineNote != null) {
+            status.append("\n").append(engineNote);
+        }
+        statusLabel.setText(status.toString());
+    }
+
+    private void showError(Throwable error) {
+        if (!(error instanceof RejectedExecutionException) && !(error instanceof SQLException)) {
+            error.printStackTrace();
+        }
+        statusLabel.setText("Terjadi kesalahan saat menjalankan query: " + error.getMessage());
+    }
+
+    public void clear() {
+        generation++;
+        loading = false;
+        if (cursor != null) {
+            closeInBackground(cursor);
+            cursor = null;
+        }
+        engineNote = null;
+        pages.clear();
+        table.getItems().clear();
+        table.getColumns().clear();
+        statusLabel.setText("");
+    }
+
+    private static void closeInBackground(QueryCursor cursor) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                cursor.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static String localNote(String sql) {
+        StringBuilder note = new StringBuilder("Dijalankan di mesin lokal (salinan dataset); nilai tetap dihitung di server saat Submit.");
+        for (String warning : LocalEngine.compatibilityWarnings(sql)) {
+            note.append("\nPeringatan: ").append(warning);
+        }
+        return note.toString();
+    }
+
+    private record FirstPage(QueryCursor cursor, ResultBuffer rows, String note) {
+    }
+}
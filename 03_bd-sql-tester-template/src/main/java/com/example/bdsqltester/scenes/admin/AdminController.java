@@ -1,7 +1,18 @@
 package com.example.bdsqltester.scenes.admin;
 
-import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.client.GradingClient;
 import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import com.example.bdsqltester.dtos.Grade;
+import com.example.bdsqltester.grading.RegradeJob;
+import com.example.bdsqltester.scenes.Background;
+import com.example.bdsqltester.scenes.CatalogListener;
+import com.example.bdsqltester.scenes.ResultTablePager;
+import com.example.bdsqltester.services.AssignmentService;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.GradeReport;
+import com.example.bdsqltester.services.QueryHandle;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -10,15 +21,20 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.net.URL;
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
 
 public class AdminController implements Initializable {
+    private static final int GRADES_PREFETCH_ROWS = 20;
 
     @FXML
-    private ListView<Assignment> assignmentList;
+    private ListView<AssignmentSummary> assignmentList;
 
     @FXML
     private TextField idField;
@@ -33,79 +49,224 @@ public class AdminController implements Initializable {
     private TextArea answerKeyField;
 
     @FXML
-    private TableView<GradeEntry> gradesTableView;
+    private TableView<Grade> gradesTableView;
 
     @FXML
-    private TableColumn<GradeEntry, String> usernameColumn;
+    private TableColumn<Grade, String> usernameColumn;
 
     @FXML
-    private TableColumn<GradeEntry, Double> gradeColumn;
+    private TableColumn<Grade, Double> gradeColumn;
 
-    private ObservableList<Assignment> assignments = FXCollections.observableArrayList();
-    private ObservableList<GradeEntry> grades = FXCollections.observableArrayList();
+    @FXML
+    private Label gradeStatsLabel;
+
+    @FXML
+    private ProgressBar regradeProgress;
+
+    @FXML
+    private Label regradeStatusLabel;
+
+    private ObservableList<AssignmentSummary> assignments = FXCollections.observableArrayList();
+    private ObservableList<Grade> grades = FXCollections.observableArrayList();
     private Assignment selectedAssignment;
+    private boolean regradeRunning;
+    private long gradesAssignmentId = -1;
+    private boolean gradesLoading;
+    private boolean gradesExhausted;
+    private long gradesGeneration;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        loadAssignments();
+        CatalogListener.bind(assignmentList, this::showCatalog);
         assignmentList.setItems(assignments);
         assignmentList.setOnMouseClicked(this::handleAssignmentSelection);
 
         usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
         gradeColumn.setCellValueFactory(new PropertyValueFactory<>("grade"));
         gradesTableView.setItems(grades);
+        gradesTableView.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= tv.getItems().size() - GRADES_PREFETCH_ROWS) {
+                    loadMoreGrades();
+                }
+            }
+        });
 
         clearAssignmentDetails();
     }
 
+    public void onShown() {
+        loadAssignments();
+    }
+
     private void loadAssignments() {
-        try (Connection connection = MainDataSource.getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery("SELECT id, name, instructions, answer_key FROM assignments")) {
-            assignments.clear();
-            while (resultSet.next()) {
-                assignments.add(new Assignment(
-                        resultSet.getLong("id"),
-                        resultSet.getString("name"),
-                        resultSet.getString("instructions"),
-                        resultSet.getString("answer_key")
-                ));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Database Error", "Gagal memuat daftar tugas: " + e.getMessage(), Alert.AlertType.ERROR);
+        assignments.setAll(GradingClient.summaries());
+    }
+
+    private void showCatalog() {
+        AssignmentSummary selected = assignmentList.getSelectionModel().getSelectedItem();
+        loadAssignments();
+        if (selected != null) {
+            assignments.stream()
+                    .filter(summary -> summary.getId() == selected.getId())
+                    .findFirst()
+                    .ifPresent(summary -> assignmentList.getSelectionModel().select(summary));
         }
     }
 
     private void loadGrades(long assignmentId) {
+        gradesGeneration++;
+        gradesAssignmentId = assignmentId;
+        gradesLoading = false;
+        gradesExhausted = false;
         grades.clear();
-        try (Connection connection = MainDataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "SELECT u.username, g.grade FROM grades g JOIN users u ON g.user_id = u.id WHERE g.assignment_id = ?")) {
-            statement.setLong(1, assignmentId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                grades.add(new GradeEntry(
-                        resultSet.getString("username"),
-                        resultSet.getDouble("grade")
-                ));
+        gradeStatsLabel.setText("Menghitung statistik...");
+
+        long generation = gradesGeneration;
+        Background.call("grade-statistics", () -> GradingClient.statistics(assignmentId)).whenComplete((statistics, error) -> Platform.runLater(() -> {
+            if (generation != gradesGeneration) {
+                return;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Database Error", "Gagal memuat nilai: " + e.getMessage(), Alert.AlertType.ERROR);
+            if (error != null) {
+                error.printStackTrace();
+                gradeStatsLabel.setText("Gagal memuat statistik: " + error.getMessage());
+                return;
+            }
+            gradeStatsLabel.setText(formatStatistics(statistics));
+        }));
+
+        loadMoreGrades();
+    }
+
+    private void loadMoreGrades() {
+        long assignmentId = gradesAssignmentId;
+        if (assignmentId < 0 || gradesLoading || gradesExhausted) {
+            return;
         }
+        gradesLoading = true;
+
+        long generation = gradesGeneration;
+        long afterUserId = grades.isEmpty() ? Long.MIN_VALUE : grades.get(grades.size() - 1).getUserId();
+        Background.call("grade-page", () -> GradingClient.gradesAfter(assignmentId, afterUserId)).whenComplete((page, error) -> Platform.runLater(() -> {
+            if (generation != gradesGeneration) {
+                return;
+            }
+            gradesLoading = false;
+            if (error != null) {
+                error.printStackTrace();
+                showAlert("Database Error", "Gagal memuat nilai: " + error.getMessage(), Alert.AlertType.ERROR);
+                return;
+            }
+            grades.addAll(page.rows());
+            gradesExhausted = page.exhausted();
+        }));
+    }
+
+    private static String formatStatistics(GradeReport.Statistics statistics) {
+        if (statistics.getCount() == 0) {
+            return "Belum ada nilai.";
+        }
+        StringBuilder text = new StringBuilder(String.format(
+                "%d nilai, rata-rata %.1f, min %.1f, maks %.1f%nP25 %.1f, median %.1f, P75 %.1f, P90 %.1f%nSebaran:",
+                statistics.getCount(), statistics.getMean(), statistics.getMin(), statistics.getMax(),
+                statistics.getP25(), statistics.getMedian(), statistics.getP75(), statistics.getP90()));
+        long[] histogram = statistics.getHistogram();
+        int width = 100 / GradeReport.HISTOGRAM_BUCKETS;
+        for (int i = 0; i < histogram.length; i++) {
+            int upper = i == histogram.length - 1 ? 100 : (i + 1) * width - 1;
+            text.append(String.format(" %d-%d: %d", i * width, upper, histogram[i]));
+        }
+        return text.toString();
     }
 
     @FXML
     void handleAssignmentSelection(MouseEvent event) {
-        selectedAssignment = assignmentList.getSelectionModel().getSelectedItem();
-        if (selectedAssignment != null) {
-            idField.setText(String.valueOf(selectedAssignment.getId()));
-            nameField.setText(selectedAssignment.getName());
-            instructionsField.setText(selectedAssignment.getInstructions());
-            answerKeyField.setText(selectedAssignment.getAnswerKey());
-            loadGrades(selectedAssignment.getId());
+        AssignmentSummary summary = assignmentList.getSelectionModel().getSelectedItem();
+        if (summary == null) {
+            return;
+        }
+        Background.call("assignment-details", () -> GradingClient.details(summary.getId())).whenComplete((assignment, error) -> Platform.runLater(() -> {
+            if (assignmentList.getSelectionModel().getSelectedItem() != summary) {
+                return;
+            }
+            if (error != null) {
+                error.printStackTrace();
+                showAlert("Database Error", "Gagal memuat detail tugas: " + error.getMessage(), Alert.AlertType.ERROR);
+                return;
+            }
+            selectedAssignment = assignment;
+            if (selectedAssignment != null) {
+                idField.setText(String.valueOf(selectedAssignment.getId()));
+                nameField.setText(selectedAssignment.getName());
+                instructionsField.setText(selectedAssignment.getInstructions());
+                answerKeyField.setText(selectedAssignment.getAnswerKey());
+                loadGrades(selectedAssignment.getId());
+            }
+        }));
+    }
+
+    @FXML
+    void onImportUsersClick(ActionEvent event) {
+        File file = chooseCsv("Impor Pengguna (username,password,role)", false);
+        if (file != null) {
+            runTransfer("Mengimpor pengguna...", () -> GradingClient.importUsers(file.toPath()) + " pengguna baru diimpor.");
+        }
+    }
+
+    @FXML
+    void onImportAssignmentsClick(ActionEvent event) {
+        File file = chooseCsv("Impor Tugas (name,instructions,answer_key)", false);
+        if (file != null) {
+            runTransfer("Mengimpor tugas...", () -> GradingClient.importAssignments(file.toPath()) + " tugas baru diimpor.");
+        }
+    }
+
+    @FXML
+    void onExportGradesClick(ActionEvent event) {
+        File file = chooseCsv("Ekspor Nilai", true);
+        if (file != null) {
+            runTransfer("Mengekspor nilai...", () -> {
+                GradingClient.exportGrades(file.toPath());
+                return "Nilai diekspor ke " + file.getName() + ".";
+            });
+        }
+    }
+
+    private File chooseCsv(String title, boolean save) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        if (save) {
+            chooser.setInitialFileName("nilai.csv");
+            return chooser.showSaveDialog(assignmentList.getScene().getWindow());
         }
+        return chooser.showOpenDialog(assignmentList.getScene().getWindow());
+    }
+
+    private void runTransfer(String status, Callable<String> transfer) {
+        regradeStatusLabel.setText(status);
+        Thread.ofVirtual().name("bulk-transfer").start(() -> {
+            try {
+                String message = transfer.call();
+                Platform.runLater(() -> {
+                    regradeStatusLabel.setText(message);
+                    showAlert("Sukses", message, Alert.AlertType.INFORMATION);
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    regradeStatusLabel.setText("");
+                    showAlert("Error", "Gagal: " + e.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        });
+    }
+
+    @FXML
+    void onMetricsClick(ActionEvent event) {
+        MetricsDashboard.show();
     }
 
     @FXML
@@ -121,25 +282,19 @@ public class AdminController implements Initializable {
             return;
         }
 
-        try (Connection connection = MainDataSource.getConnection()) {
-            String sql;
-            if (selectedAssignment != null) {
-                sql = "UPDATE assignments SET name = ?, instructions = ?, answer_key = ? WHERE id = ?";
-            } else {
-                sql = "INSERT INTO assignments (name, instructions, answer_key) VALUES (?, ?, ?)";
-            }
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setString(1, nameField.getText());
-            statement.setString(2, instructionsField.getText());
-            statement.setString(3, answerKeyField.getText());
-            if (selectedAssignment != null) {
-                statement.setLong(4, selectedAssignment.getId());
-            }
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected > 0) {
-                loadAssignments();
+        Assignment previous = selectedAssignment;
+        boolean answerKeyChanged = previous != null && !previous.getAnswerKey().equals(answerKeyField.getText());
+        String newAnswerKey = answerKeyField.getText();
+
+        try {
+            long id = AssignmentService.save(previous == null ? null : previous.getId(),
+                    nameField.getText(), instructionsField.getText(), newAnswerKey);
+            if (id >= 0) {
                 clearAssignmentDetails();
                 showAlert("Sukses", "Data tugas berhasil disimpan.", Alert.AlertType.INFORMATION);
+                if (answerKeyChanged) {
+                    startRegrade(id, newAnswerKey);
+                }
             } else {
                 showAlert("Error", "Gagal menyimpan data tugas.", Alert.AlertType.ERROR);
             }
@@ -161,12 +316,8 @@ public class AdminController implements Initializable {
         Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION, "Apakah Anda yakin ingin menghapus tugas ini?", ButtonType.YES, ButtonType.NO);
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
-                try (Connection connection = MainDataSource.getConnection();
-                     PreparedStatement statement = connection.prepareStatement("DELETE FROM assignments WHERE id = ?")) {
-                    statement.setLong(1, selectedAssignment.getId());
-                    int rowsAffected = statement.executeUpdate();
-                    if (rowsAffected > 0) {
-                        loadAssignments();
+                try {
+                    if (AssignmentService.delete(selectedAssignment.getId())) {
                         clearAssignmentDetails();
                         showAlert("Sukses", "Tugas berhasil dihapus.", Alert.AlertType.INFORMATION);
                     } else {
@@ -190,51 +341,62 @@ public class AdminController implements Initializable {
         }
 
         String testQuery = answerKeyField.getText();
-        try (Connection testConnection = DriverManager.getConnection(
-                "jdbc:postgresql://localhost:5432/oracle_hr", // Ganti dengan URL koneksi Oracle HR Anda yang sebenarnya
-                "postgres", // Ganti dengan username Oracle HR Anda
-                "postgres" // Ganti dengan password Oracle HR Anda
-        );
-             Statement stmt = testConnection.createStatement();
-             ResultSet rs = stmt.executeQuery(testQuery)) {
-
-            TextArea resultTextArea = new TextArea();
-            resultTextArea.setEditable(false);
-            StringBuilder resultBuilder = new StringBuilder();
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-
-            // Tambahkan header kolom
-            for (int i = 1; i <= columnCount; i++) {
-                resultBuilder.append(metaData.getColumnName(i)).append("\t\t");
-            }
-            resultBuilder.append("\n");
-            for (int i = 1; i <= columnCount; i++) {
-                resultBuilder.append("----------\t\t");
-            }
-            resultBuilder.append("\n");
-
-            // Tambahkan data baris
-            while (rs.next()) {
-                for (int i = 1; i <= columnCount; i++) {
-                    resultBuilder.append(rs.getString(i)).append("\t\t");
-                }
-                resultBuilder.append("\n");
-            }
-
-            resultTextArea.setText(resultBuilder.toString());
+        TableView<Integer> resultTable = new TableView<>();
+        Label statusLabel = new Label();
+        statusLabel.setWrapText(true);
+        ResultTablePager pager = new ResultTablePager(resultTable, statusLabel);
+        pager.run(testQuery, ExecutionLimits.defaults(), new QueryHandle());
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Hasil Test");
+        alert.setHeaderText("Output dari Query:");
+        alert.getDialogPane().setContent(new VBox(8, resultTable, statusLabel));
+        alert.setResizable(true);
+        alert.showAndWait();
+        pager.clear();
+    }
 
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Hasil Test");
-            alert.setHeaderText("Output dari Query:");
-            alert.getDialogPane().setContent(resultTextArea);
-            alert.setResizable(true);
-            alert.showAndWait();
+    @FXML
+    void onRegradeClick(ActionEvent event) {
+        if (selectedAssignment == null) {
+            showAlert("Peringatan", "Pilih tugas yang ingin dinilai ulang.", Alert.AlertType.WARNING);
+            return;
+        }
+        startRegrade(selectedAssignment.getId(), selectedAssignment.getAnswerKey());
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error", "Terjadi kesalahan saat menjalankan query: " + e.getMessage(), Alert.AlertType.ERROR);
+    private void startRegrade(long assignmentId, String answerKey) {
+        if (regradeRunning) {
+            showAlert("Peringatan", "Penilaian ulang lain masih berjalan.", Alert.AlertType.WARNING);
+            return;
         }
+        regradeRunning = true;
+        regradeProgress.setProgress(0);
+        regradeStatusLabel.setText("Menilai ulang jawaban...");
+
+        Thread.ofVirtual().name("regrade-job").start(() -> {
+            try {
+                RegradeJob.Summary summary = RegradeJob.run(assignmentId, answerKey, (done, total, rate) -> Platform.runLater(() -> {
+                    regradeProgress.setProgress((double) done / total);
+                    regradeStatusLabel.setText(String.format("%d/%d jawaban dinilai (%.1f jawaban/detik)", done, total, rate));
+                }));
+                Platform.runLater(() -> {
+                    regradeRunning = false;
+                    regradeProgress.setProgress(1);
+                    regradeStatusLabel.setText(String.format("Selesai: %d jawaban berbeda, %d submission dan %d nilai diperbarui dalam %d ms.",
+                            summary.getAnswers(), summary.getSubmissionsUpdated(), summary.getGradesUpdated(), summary.getElapsedMillis()));
+                    if (selectedAssignment != null && selectedAssignment.getId() == assignmentId) {
+                        loadGrades(assignmentId);
+                    }
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    regradeRunning = false;
+                    regradeStatusLabel.setText("Gagal menilai ulang: " + e.getMessage());
+                });
+            }
+        });
     }
 
     @FXML
@@ -251,7 +413,10 @@ public class AdminController implements Initializable {
         nameField.clear();
         instructionsField.clear();
         answerKeyField.clear();
+        gradesGeneration++;
+        gradesAssignmentId = -1;
         grades.clear();
+        gradeStatsLabel.setText("");
     }
 
     private void showAlert(String title, String content, Alert.AlertType alertType) {
@@ -261,57 +426,4 @@ public class AdminController implements Initializable {
         alert.setContentText(content);
         alert.showAndWait();
     }
-
-    public static class Assignment {
-        private long id;
-        private String name;
-        private String instructions;
-        private String answerKey;
-
-        public Assignment(long id, String name, String instructions, String answerKey) {
-            this.id = id;
-            this.name = name;
-            this.instructions = instructions;
-            this.answerKey = answerKey;
-        }
-
-        public long getId() {
-            return id;
-        }
-
-        public String getName() {
-            return name;
-        }
-
-        public String getInstructions() {
-            return instructions;
-        }
-
-        public String getAnswerKey() {
-            return answerKey;
-        }
-
-        @Override
-        public String toString() {
-            return name;
-        }
-    }
-
-    public static class GradeEntry {
-        private String username;
-        private double grade;
-
-        public GradeEntry(String username, double grade) {
-            this.username = username;
-            this.grade = grade;
-        }
-
-        public String getUsername() {
-            return username;
-        }
-
-        public double getGrade() {
-            return grade;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.example.bdsqltester.scenes.admin;
+
+import com.example.bdsqltester.metrics.Metric;
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.metrics.Timer;
+import com.example.bdsqltester.repositories.GradeRepository;
+import javafx.application.Platform;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class MetricsDashboard {
+    private record Row(String name, String value) {
+    }
+
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final TableView<Row> table = new TableView<>();
+    private final Label rateLabel = new Label();
+    private final Timeline timeline;
+    private boolean rateLoading;
+
+    private MetricsDashboard() {
+        TableColumn<Row, String> nameColumn = new TableColumn<>("Metrik");
+        nameColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().name()));
+        nameColumn.setPrefWidth(380);
+        TableColumn<Row, String> valueColumn = new TableColumn<>("Nilai");
+        valueColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().value()));
+        valueColumn.setPrefWidth(220);
+        table.getColumns().add(nameColumn);
+        table.getColumns().add(valueColumn);
+
+        timeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> refresh()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public static void show() {
+        MetricsDashboard dashboard = new MetricsDashboard();
+        BorderPane root = new BorderPane(dashboard.table);
+        root.setTop(dashboard.rateLabel);
+
+        Stage stage = new Stage();
+        stage.setTitle("Metrik");
+        stage.setScene(new Scene(root, 640, 480));
+        stage.setOnHidden(event -> dashboard.timeline.stop());
+        dashboard.refresh();
+        dashboard.timeline.play();
+        stage.show();
+    }
+
+    private void refresh() {
+        ObservableList<Row> rows = FXCollections.observableArrayList();
+        for (Metric metric : Metrics.all()) {
+            String name = metric.getLabels().isEmpty() ? metric.getName() : metric.getName() + "{" + metric.getLabels() + "}";
+            if (metric instanceof Timer timer) {
+                rows.add(new Row(name, String.format(Locale.ROOT, "%d kali, rata-rata %.1f ms, maks %.1f ms",
+                        timer.getCount(), timer.getAverageMillis(), timer.getMaxMillis())));
+            } else {
+                List<Number> values = new ArrayList<>(1);
+                metric.samples((suffix, value) -> values.add(value));
+                rows.add(new Row(name, values.isEmpty() ? "" : String.valueOf(values.get(0))));
+            }
+        }
+        table.getItems().setAll(rows);
+        refreshRate();
+    }
+
+    private void refreshRate() {
+        if (rateLoading) {
+            return;
+        }
+        rateLoading = true;
+        Thread.ofVirtual().name("metrics-dashboard-rate").start(() -> {
+            String text;
+            try {
+                long submissions = GradeRepository.countSubmissionsSince(RATE_WINDOW_SECONDS);
+                text = String.format(Locale.ROOT, "Submit per detik (%d detik terakhir, semua aplikasi): %.2f",
+                        RATE_WINDOW_SECONDS, (double) submissions / RATE_WINDOW_SECONDS);
+            } catch (SQLException e) {
+                text = "Submit per detik: gagal dimuat (" + e.getMessage() + ")";
+            }
+            String result = text;
+            Platform.runLater(() -> {
+                rateLabel.setText(result);
+                rateLoading = false;
+            });
+        });
+    }
+}
@@ -1,6 +1,17 @@
 package com.example.bdsqltester.scenes.user;
 
-import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import com.example.bdsqltester.client.GradingClient;
+import com.example.bdsqltester.grading.GradingResult;
+import com.example.bdsqltester.scenes.Background;
+import com.example.bdsqltester.scenes.CatalogListener;
+import com.example.bdsqltester.scenes.ResultTablePager;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.LocalEngine;
+import com.example.bdsqltester.services.QueryHandle;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -9,16 +20,13 @@ import javafx.scene.control.*;
 import javafx.scene.input.MouseEvent;
 
 import java.net.URL;
-import java.sql.*;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
 
 public class UserViewController implements Initializable {
 
     @FXML
-    private ListView<Assignment> assignmentList;
+    private ListView<AssignmentSummary> assignmentList;
 
     @FXML
     private TextField idField;
@@ -36,188 +44,137 @@ public class UserViewController implements Initializable {
     private Label gradeLabel;
 
     @FXML
-    private TextArea queryResultArea;
+    private TableView<Integer> queryResultTable;
 
-    private ObservableList<Assignment> assignments = FXCollections.observableArrayList();
+    @FXML
+    private Label queryStatusLabel;
+
+    private ResultTablePager resultPager;
+
+    private ObservableList<AssignmentSummary> assignments = FXCollections.observableArrayList();
     private Assignment selectedAssignment;
-    private long loggedInUserId;
+    private volatile QueryHandle runningQuery;
 
-    public UserViewController(long userId) {
-        this.loggedInUserId = userId;
+    public void onShown() {
+        loadAssignments();
     }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        loadAssignments();
+        CatalogListener.bind(assignmentList, this::showCatalog);
         assignmentList.setItems(assignments);
         assignmentList.setOnMouseClicked(this::handleAssignmentSelection);
         gradeLabel.setText("");
-        queryResultArea.setText("");
+        resultPager = new ResultTablePager(queryResultTable, queryStatusLabel);
+        LocalEngine.prepare();
     }
 
     private void loadAssignments() {
-        try (Connection connection = MainDataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement("SELECT id, name AS title, instructions, answer_key FROM assignments")) {
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                assignments.add(new Assignment(
-                        resultSet.getLong("id"),
-                        resultSet.getString("title"),
-                        resultSet.getString("instructions"),
-                        resultSet.getString("answer_key")
-                ));
-            }
-            if (assignments.isEmpty()) {
-                showAlert("Info", "Tidak ada daftar assignment yang tersedia.", Alert.AlertType.INFORMATION);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Database Error", "Gagal memuat daftar assignment: " + e.getMessage(), Alert.AlertType.ERROR);
+        assignments.setAll(GradingClient.summaries());
+        if (assignments.isEmpty()) {
+            showAlert("Info", "Tidak ada daftar assignment yang tersedia.", Alert.AlertType.INFORMATION);
+        }
+    }
+
+    private void showCatalog() {
+        AssignmentSummary selected = assignmentList.getSelectionModel().getSelectedItem();
+        assignments.setAll(GradingClient.summaries());
+        if (selected != null) {
+            assignments.stream()
+                    .filter(summary -> summary.getId() == selected.getId())
+                    .findFirst()
+                    .ifPresent(summary -> assignmentList.getSelectionModel().select(summary));
         }
     }
 
     @FXML
     void handleAssignmentSelection(MouseEvent event) {
-        selectedAssignment = assignmentList.getSelectionModel().getSelectedItem();
-        if (selectedAssignment != null) {
-            idField.setText(String.valueOf(selectedAssignment.getId()));
-            nameField.setText(selectedAssignment.getTitle());
-            instructionsField.setText(selectedAssignment.getInstructions());
-            answerField.clear();
-            loadUserGrade(selectedAssignment.getId());
-            queryResultArea.clear();
+        AssignmentSummary summary = assignmentList.getSelectionModel().getSelectedItem();
+        if (summary == null) {
+            return;
         }
+        Background.call("assignment-details", () -> GradingClient.details(summary.getId())).whenComplete((assignment, error) -> Platform.runLater(() -> {
+            if (assignmentList.getSelectionModel().getSelectedItem() != summary) {
+                return;
+            }
+            if (error != null) {
+                error.printStackTrace();
+                showAlert("Database Error", "Gagal memuat detail assignment: " + error.getMessage(), Alert.AlertType.ERROR);
+                return;
+            }
+            selectedAssignment = assignment;
+            if (selectedAssignment != null) {
+                idField.setText(String.valueOf(selectedAssignment.getId()));
+                nameField.setText(selectedAssignment.getName());
+                instructionsField.setText(selectedAssignment.getInstructions());
+                answerField.clear();
+                loadUserGrade(selectedAssignment.getId());
+                resultPager.clear();
+            }
+        }));
     }
 
     @FXML
     void onTestClick(javafx.event.ActionEvent event) {
         String userAnswer = answerField.getText();
         if (selectedAssignment != null) {
-            try (Connection testConnection = DriverManager.getConnection(
-                    "jdbc:postgresql://localhost:5432/oracle_hr", // Ganti dengan URL database tes Anda
-                    "postgres", // Ganti dengan username database tes Anda
-                    "postgres" // Ganti dengan password database tes Anda
-            );
-                 Statement stmt = testConnection.createStatement();
-                 ResultSet rs = stmt.executeQuery(userAnswer)) {
-
-                StringBuilder resultBuilder = new StringBuilder();
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-
-                for (int i = 1; i <= columnCount; i++) {
-                    resultBuilder.append(metaData.getColumnName(i)).append("\t");
-                }
-                resultBuilder.append("\n");
-
-                while (rs.next()) {
-                    for (int i = 1; i <= columnCount; i++) {
-                        resultBuilder.append(rs.getString(i)).append("\t");
-                    }
-                    resultBuilder.append("\n");
-                }
-
-                if (resultBuilder.length() > 0) {
-                    queryResultArea.setText(resultBuilder.toString());
-                } else {
-                    queryResultArea.setText("Tidak ada hasil.");
-                }
-
-            } catch (SQLException e) {
-                e.printStackTrace();
-                queryResultArea.setText("Terjadi kesalahan saat menjalankan query: " + e.getMessage());
-            }
+            QueryHandle handle = new QueryHandle();
+            runningQuery = handle;
+            resultPager.run(userAnswer, ExecutionLimits.forAssignment(selectedAssignment.getId()), handle, LocalEngine.isEnabled());
         } else {
             showAlert("Peringatan", "Pilih assignment terlebih dahulu.", Alert.AlertType.WARNING);
         }
     }
 
+    @FXML
+    void onCancelClick(javafx.event.ActionEvent event) {
+        QueryHandle handle = runningQuery;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
 
     @FXML
     void onSubmitClick(javafx.event.ActionEvent event) {
         String userAnswer = answerField.getText();
         if (selectedAssignment != null) {
-            double grade = evaluateAnswer(selectedAssignment, userAnswer);
-            saveGradeToDatabase(selectedAssignment.getId(), grade);
-            showAlert("Hasil", "Nilai Anda: " + String.format("%.2f", grade), Alert.AlertType.INFORMATION);
+            Assignment assignment = selectedAssignment;
+            gradeLabel.setText("Sedang dinilai...");
+            GradingClient.submit(assignment.getId(), userAnswer).whenComplete((submitted, error) -> Platform.runLater(() -> {
+                if (error instanceof RejectedExecutionException || error instanceof LimitExceededException) {
+                    loadUserGrade(assignment.getId());
+                    showAlert("Peringatan", error.getMessage(), Alert.AlertType.WARNING);
+                } else if (error != null) {
+                    error.printStackTrace();
+                    loadUserGrade(assignment.getId());
+                    showAlert("Database Error", "Gagal menilai jawaban: " + error.getMessage(), Alert.AlertType.ERROR);
+                } else {
+                    GradingResult result = submitted.result();
+                    if (selectedAssignment == assignment) {
+                        gradeLabel.setText("Nilai Anda: " + submitted.bestGrade());
+                    }
+                    showAlert("Hasil", "Nilai Anda: " + String.format("%.2f", result.getGrade()) + "\n" + result.getMessage(), Alert.AlertType.INFORMATION);
+                }
+            }));
         } else {
             showAlert("Peringatan", "Pilih assignment terlebih dahulu.", Alert.AlertType.WARNING);
         }
     }
 
-    private double evaluateAnswer(Assignment assignment, String userAnswer) {
-        String correctAnswer = assignment.getAnswerKey().trim().replaceAll("\\s+", " ").toLowerCase();
-        String submittedAnswer = userAnswer.trim().replaceAll("\\s+", " ").toLowerCase();
-        double grade = 0;
-
-        List<String> correctWords = Arrays.asList(correctAnswer.split("\\s+"));
-        List<String> submittedWords = Arrays.asList(submittedAnswer.split("\\s+"));
-
-        HashSet<String> correctWordSet = new HashSet<>(correctWords);
-        HashSet<String> submittedWordSet = new HashSet<>(submittedWords);
-
-        if (submittedWordSet.containsAll(correctWordSet)) {
-            if (submittedAnswer.equals(correctAnswer)) {
-                grade = 100;
-            } else {
-                grade = 50;
-            }
-        } else {
-            grade = 50;
-        }
-
-        return grade;
-    }
-
-    private void saveGradeToDatabase(long assignmentId, double grade) {
-        try (Connection connection = MainDataSource.getConnection()) {
-            String selectQuery = "SELECT grade FROM grades WHERE assignment_id = ? AND user_id = ?";
-            PreparedStatement selectStmt = connection.prepareStatement(selectQuery);
-            selectStmt.setLong(1, assignmentId);
-            selectStmt.setLong(2, loggedInUserId);
-            ResultSet rs = selectStmt.executeQuery();
-
-            if (rs.next()) {
-                double existingGrade = rs.getDouble("grade");
-                if (grade > existingGrade) {
-                    String updateQuery = "UPDATE grades SET grade = ? WHERE assignment_id = ? AND user_id = ?";
-                    PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
-                    updateStmt.setDouble(1, grade);
-                    updateStmt.setLong(2, assignmentId);
-                    updateStmt.setLong(3, loggedInUserId);
-                    updateStmt.executeUpdate();
-                }
-            } else {
-                String insertQuery = "INSERT INTO grades (assignment_id, user_id, grade) VALUES (?, ?, ?)";
-                PreparedStatement insertStmt = connection.prepareStatement(insertQuery);
-                insertStmt.setLong(1, assignmentId);
-                insertStmt.setLong(2, loggedInUserId);
-                insertStmt.setDouble(3, grade);
-                insertStmt.executeUpdate();
-            }
-            loadUserGrade(assignmentId);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Database Error", "Gagal menyimpan nilai: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
-    }
-
     private void loadUserGrade(long assignmentId) {
-        try (Connection connection = MainDataSource.getConnection()) {
-            String query = "SELECT grade FROM grades WHERE assignment_id = ? AND user_id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setLong(1, assignmentId);
-            statement.setLong(2, loggedInUserId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                gradeLabel.setText("Nilai Anda: " + resultSet.getDouble("grade"));
+        Background.call("user-grade", () -> GradingClient.grade(assignmentId)).whenComplete((grade, error) -> Platform.runLater(() -> {
+            if (selectedAssignment == null || selectedAssignment.getId() != assignmentId) {
+                return;
+            }
+            if (error != null) {
+                error.printStackTrace();
+                gradeLabel.setText("Gagal memuat nilai");
+            } else if (grade.isPresent()) {
+                gradeLabel.setText("Nilai Anda: " + grade.getAsDouble());
             } else {
                 gradeLabel.setText("Nilai Anda: Belum ada");
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            gradeLabel.setText("Gagal memuat nilai");
-        }
+        }));
     }
 
     private void showAlert(String title, String content, Alert.AlertType alertType) {
@@ -228,38 +185,4 @@ public class UserViewController implements Initializable {
         alert.showAndWait();
     }
 
-    public static class Assignment {
-        private long id;
-        private String title;
-        private String instructions;
-        private String answerKey;
-
-        public Assignment(long id, String title, String instructions, String answerKey) {
-            this.id = id;
-            this.title = title;
-            this.instructions = instructions;
-            this.answerKey = answerKey;
-        }
-
-        public long getId() {
-            return id;
-        }
-
-        public String getTitle() {
-            return title;
-        }
-
-        public String getInstructions() {
-            return instructions;
-        }
-
-        public String getAnswerKey() {
-            return answerKey;
-        }
-
-        @Override
-        public String toString() {
-            return title;
-        }
-    }
-}
\ No newline at end of file
+}
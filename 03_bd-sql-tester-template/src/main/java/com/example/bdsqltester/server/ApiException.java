@@ -0,0 +1,19 @@
+package com.example.bdsqltester.server;
+
+import java.io.Serial;
+
+class ApiException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
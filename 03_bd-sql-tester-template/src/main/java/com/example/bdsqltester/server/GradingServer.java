@@ -0,0 +1,491 @@
+package com.example.bdsqltester.server;
+
+import com.example.bdsqltester.datasources.PoolFactory;
+import com.example.bdsqltester.datasources.SchemaMigrator;
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import com.example.bdsqltester.dtos.Grade;
+import com.example.bdsqltester.dtos.User;
+import com.example.bdsqltester.grading.GradingScheduler;
+import com.example.bdsqltester.grading.SandboxSchemas;
+import com.example.bdsqltester.grading.RegradeJob;
+import com.example.bdsqltester.metrics.MetricsServer;
+import com.example.bdsqltester.services.AssignmentCatalog;
+import com.example.bdsqltester.services.AssignmentService;
+import com.example.bdsqltester.services.AuthService;
+import com.example.bdsqltester.services.BulkTransfer;
+import com.example.bdsqltester.services.GradeReport;
+import com.example.bdsqltester.services.GradeStore;
+import com.example.bdsqltester.services.Json;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.QueryExecutionService;
+import com.example.bdsqltester.services.QueryHandle;
+import com.example.bdsqltester.services.SubmissionService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * POST   /api/login                        {"username", "password", "role"}
+ *                                          -&gt; {"token", "userId", "username", "role", "assignments"}
+ * POST   /api/logout
+ * GET    /api/assignments                  daftar id dan nama
+ * GET    /api/assignments/{id}             detail; kunci jawaban hanya untuk admin
+ * POST   /api/assignments                  (admin) {"name", "instructions", "answerKey"}
+ * PUT    /api/assignments/{id}             (admin) sama seperti POST; penilaian ulang jika kunci jawaban berubah
+ * DELETE /api/assignments/{id}             (admin)
+ * POST   /api/assignments/{id}/submissions {"answer"} -&gt; {"grade", "bestGrade", "correct", "message"}
+ * GET    /api/assignments/{id}/grade       nilai terbaik pengguna yang login
+ * GET    /api/assignments/{id}/statistics  (admin) statistik nilai
+ * GET    /api/assignments/{id}/grades      (admin) ?after={userId} -&gt; {"rows", "exhausted"}, urut userId
+ * POST   /api/users/import                 (admin) CSV username,password,role
+ * POST   /api/assignments/import           (admin) CSV name,instructions,answer_key
+ * GET    /api/grades.csv                   (admin) matriks nilai mahasiswa x assignment
+ * GET    /health
+ * GET    /metrics                          dari loopback, atau dengan token admin
+ * </pre>
+ *
+ * Dijalankan dengan {@code --server} atau langsung lewat main class ini. Alamat diatur dengan
+ * bdsqltester.server.host (bawaan 0.0.0.0) dan bdsqltester.server.port (bawaan 8080).
+ */
+public class GradingServer {
+    private static final Logger log = LoggerFactory.getLogger(GradingServer.class);
+
+    private static final String HOST = System.getProperty("bdsqltester.server.host", "0.0.0.0");
+    private static final int PORT = Integer.getInteger("bdsqltester.server.port", 8080);
+    private static final int MAX_BODY_BYTES = Integer.getInteger("bdsqltester.server.maxBodyBytes", 256 * 1024);
+
+    private final Sessions sessions = new Sessions();
+    private final String host;
+    private final int port;
+    private HttpServer server;
+    private ScheduledExecutorService housekeeping;
+
+    public static void main(String[] args) throws Exception {
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            log.error("Schema migration failed", e);
+        }
+        QueryExecutionService.warmUp();
+        AuthService.startPasswordMigration();
+        if (Boolean.parseBoolean(System.getProperty("bdsqltester.sandbox.prepareOnStartup", "true"))) {
+            SandboxSchemas.start();
+        }
+
+        GradingServer gradingServer = new GradingServer(HOST, PORT);
+        gradingServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gradingServer.stop();
+            shutdownServices();
+        }, "grading-server-shutdown"));
+    }
+
+    public GradingServer(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/", this::handleApi);
+        server.createContext("/health", exchange -> send(exchange, 200, Json.object("status", "ok")));
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+
+        housekeeping = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("session-purge").factory());
+        housekeeping.scheduleAtFixedRate(sessions::purgeExpired, 10, 10, TimeUnit.MINUTES);
+        log.info("Grading server listening on {}:{}", host, server.getAddress().getPort());
+    }
+
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(2);
+        server = null;
+        housekeeping.shutdownNow();
+        log.info("Grading server stopped");
+    }
+
+    private static void shutdownServices() {
+        AssignmentCatalog.shutdown();
+        GradingScheduler.shutdown();
+        AuthService.shutdown();
+        SandboxSchemas.shutdown();
+        PoolFactory.shutdown();
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRemoteAddress().getAddress().isLoopbackAddress()) {
+                try {
+                    requireAdmin(authenticate(exchange));
+                } catch (ApiException e) {
+                    send(exchange, e.getStatus(), Json.object("error", e.getMessage()));
+                    return;
+                }
+            }
+            byte[] body = MetricsServer.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (ApiException e) {
+                send(exchange, e.getStatus(), Json.object("error", e.getMessage()));
+            } catch (IllegalArgumentException | ClassCastException e) {
+                send(exchange, 400, Json.object("error", "Request tidak valid: " + e.getMessage()));
+            } catch (RejectedExecutionException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, Json.object("error", e.getMessage()));
+            } catch (LimitExceededException e) {
+                send(exchange, 409, Json.object("error", e.getMessage(), "limit", e.getLimit().name()));
+            } catch (SQLException e) {
+                log.error("Database error on {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                if (isUnavailable(e)) {
+                    exchange.getResponseHeaders().set("Retry-After", "5");
+                    send(exchange, 503, Json.object("error", "Database sedang tidak tersedia."));
+                } else {
+                    send(exchange, 500, Json.object("error", "Terjadi kesalahan pada database."));
+                }
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        List<String> path = segments(exchange.getRequestURI().getPath());
+
+        if (path.equals(List.of("login")) && method.equals("POST")) {
+            login(exchange);
+            return;
+        }
+        Sessions.Session session = authenticate(exchange);
+        if (path.equals(List.of("logout")) && method.equals("POST")) {
+            sessions.remove(token(exchange));
+            send(exchange, 204, null);
+            return;
+        }
+        if (path.equals(List.of("grades.csv")) && method.equals("GET")) {
+            requireAdmin(session);
+            exportGrades(exchange);
+            return;
+        }
+        if (path.size() == 2 && path.get(1).equals("import") && method.equals("POST")) {
+            requireAdmin(session);
+            importCsv(exchange, path.get(0));
+            return;
+        }
+        if (path.isEmpty() || !path.get(0).equals("assignments")) {
+            throw new ApiException(404, "Tidak ditemukan.");
+        }
+
+        if (path.size() == 1) {
+            switch (method) {
+                case "GET" -> listAssignments(exchange);
+                case "POST" -> saveAssignment(exchange, session, null);
+                default -> throw new ApiException(405, "Metode tidak didukung.");
+            }
+            return;
+        }
+        long assignmentId = parseId(path.get(1));
+        if (path.size() == 2) {
+            switch (method) {
+                case "GET" -> getAssignment(exchange, session, assignmentId);
+                case "PUT" -> saveAssignment(exchange, session, assignmentId);
+                case "DELETE" -> deleteAssignment(exchange, session, assignmentId);
+                default -> throw new ApiException(405, "Metode tidak didukung.");
+            }
+            return;
+        }
+        String action = path.get(2);
+        if (path.size() == 3 && action.equals("submissions") && method.equals("POST")) {
+            submit(exchange, session, assignmentId);
+        } else if (path.size() == 3 && action.equals("grade") && method.equals("GET")) {
+            OptionalDouble grade = GradeStore.loadGrade(assignmentId, session.user().getId());
+            send(exchange, 200, Json.object("grade", grade.isPresent() ? grade.getAsDouble() : null));
+        } else if (path.size() == 3 && action.equals("grades") && method.equals("GET")) {
+            requireAdmin(session);
+            String after = queryParameter(exchange, "after");
+            GradeReport.Page page = GradeReport.pageAfter(assignmentId, after == null ? Long.MIN_VALUE : Long.parseLong(after));
+            List<Object> rows = new ArrayList<>();
+            for (Grade grade : page.rows()) {
+                rows.add(Json.object("userId", grade.getUserId(), "username", grade.getUsername(), "grade", grade.getGrade()));
+            }
+            send(exchange, 200, Json.object("rows", rows, "exhausted", page.exhausted()));
+        } else if (path.size() == 3 && action.equals("statistics") && method.equals("GET")) {
+            requireAdmin(session);
+            GradeReport.Statistics statistics = GradeReport.statistics(assignmentId);
+            send(exchange, 200, Json.object(
+                    "count", statistics.getCount(), "mean", statistics.getMean(),
+                    "min", statistics.getMin(), "max", statistics.getMax(),
+                    "p25", statistics.getP25(), "median", statistics.getMedian(),
+                    "p75", statistics.getP75(), "p90", statistics.getP90(),
+                    "histogram", Arrays.stream(statistics.getHistogram()).boxed().toList()));
+        } else {
+            throw new ApiException(404, "Tidak ditemukan.");
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, Object> body = readObject(exchange);
+        String role = stringField(body, "role").toLowerCase();
+        if (!role.equals("admin") && !role.equals("user")) {
+            throw new ApiException(400, "Role harus admin atau user.");
+        }
+        Optional<User> user = AuthService.authenticate(stringField(body, "username"), stringField(body, "password"), role);
+        if (user.isEmpty()) {
+            throw new ApiException(401, "Username atau password salah.");
+        }
+        if (role.equals("admin")) {
+            AuthService.startPasswordMigration();
+        }
+        String token = sessions.create(user.get(), role);
+        send(exchange, 200, Json.object("token", token, "userId", user.get().getId(),
+                "username", user.get().getUsername(), "role", role, "assignments", assignmentList()));
+    }
+
+    private void listAssignments(HttpExchange exchange) throws IOException, SQLException {
+        send(exchange, 200, assignmentList());
+    }
+
+    private static List<Object> assignmentList() throws SQLException {
+        List<Object> list = new ArrayList<>();
+        for (AssignmentSummary summary : AssignmentCatalog.summaries()) {
+            list.add(Json.object("id", summary.getId(), "name", summary.getName()));
+        }
+        return list;
+    }
+
+    private void getAssignment(HttpExchange exchange, Sessions.Session session, long assignmentId) throws IOException, SQLException {
+        Assignment assignment = details(assignmentId);
+        Map<String, Object> body = Json.object("id", assignment.getId(), "name", assignment.getName(),
+                "instructions", assignment.getInstructions());
+        if (session.isAdmin()) {
+            body.put("answerKey", assignment.getAnswerKey());
+        }
+        send(exchange, 200, body);
+    }
+
+    private void saveAssignment(HttpExchange exchange, Sessions.Session session, Long assignmentId) throws IOException, SQLException {
+        requireAdmin(session);
+        Map<String, Object> body = readObject(exchange);
+        String name = stringField(body, "name");
+        String instructions = stringField(body, "instructions");
+        String answerKey = stringField(body, "answerKey");
+
+        boolean answerKeyChanged = assignmentId != null && !details(assignmentId).getAnswerKey().equals(answerKey);
+        long id = AssignmentService.save(assignmentId, name, instructions, answerKey);
+        if (id < 0) {
+            throw new ApiException(404, "Assignment " + assignmentId + " tidak ditemukan.");
+        }
+        if (answerKeyChanged) {
+            Thread.ofVirtual().name("regrade-job").start(() -> {
+                try {
+                    RegradeJob.Summary summary = RegradeJob.run(id, answerKey, (done, total, rate) -> { });
+                    log.info("Regraded assignment {}: {} answers, {} grades updated", id, summary.getAnswers(), summary.getGradesUpdated());
+                } catch (Exception e) {
+                    log.error("Regrade of assignment {} failed", id, e);
+                }
+            });
+        }
+        send(exchange, assignmentId == null ? 201 : 200, Json.object("id", id, "regrading", answerKeyChanged));
+    }
+
+    private void deleteAssignment(HttpExchange exchange, Sessions.Session session, long assignmentId) throws IOException, SQLException {
+        requireAdmin(session);
+        if (!AssignmentService.delete(assignmentId)) {
+            throw new ApiException(404, "Assignment " + assignmentId + " tidak ditemukan.");
+        }
+        send(exchange, 204, null);
+    }
+
+    private void importCsv(HttpExchange exchange, String target) throws IOException, SQLException {
+        long imported;
+        try (InputStream in = exchange.getRequestBody()) {
+            imported = switch (target) {
+                case "users" -> BulkTransfer.importUsers(in);
+                case "assignments" -> BulkTransfer.importAssignments(in);
+                default -> throw new ApiException(404, "Tidak ditemukan.");
+            };
+        }
+        send(exchange, 200, Json.object("imported", imported));
+    }
+
+    private void exportGrades(HttpExchange exchange) throws IOException, SQLException {
+        exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=utf-8");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"nilai.csv\"");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            BulkTransfer.exportGradeMatrix(out);
+        }
+    }
+
+    private void submit(HttpExchange exchange, Sessions.Session session, long assignmentId) throws IOException, SQLException {
+        if (session.isAdmin()) {
+            throw new ApiException(403, "Hanya mahasiswa yang dapat mengirim jawaban.");
+        }
+        String answer = stringField(readObject(exchange), "answer");
+        details(assignmentId);
+
+        SubmissionService.Submission submission;
+        try {
+            submission = SubmissionService.submit(assignmentId, session.user().getId(), answer, new QueryHandle()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Server sedang berhenti.");
+        } catch (ExecutionException | CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+        send(exchange, 200, Json.object("grade", submission.result().getGrade(), "bestGrade", submission.bestGrade(),
+                "correct", submission.result().isCorrect(), "message", submission.result().getMessage()));
+    }
+
+    private static SQLException unwrap(Throwable cause) {
+        if (cause instanceof SQLException sql) {
+            return sql;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new SQLException(cause);
+    }
+
+    private static Assignment details(long assignmentId) throws SQLException {
+        return AssignmentCatalog.find(assignmentId)
+                .orElseThrow(() -> new ApiException(404, "Assignment " + assignmentId + " tidak ditemukan."));
+    }
+
+    // Pool habis atau koneksi gagal (08), server penuh (53), atau server sedang dimatikan (57P01-57P03)
+    private static boolean isUnavailable(SQLException e) {
+        if (e instanceof SQLTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("53") || state.startsWith("57P"));
+    }
+
+    private Sessions.Session authenticate(HttpExchange exchange) {
+        String token = token(exchange);
+        Sessions.Session session = token == null ? null : sessions.get(token);
+        if (session == null) {
+            throw new ApiException(401, "Silakan login terlebih dahulu.");
+        }
+        return session;
+    }
+
+    private static String token(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void requireAdmin(Sessions.Session session) {
+        if (!session.isAdmin()) {
+            throw new ApiException(403, "Hanya admin yang dapat melakukan ini.");
+        }
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring("/api/".length()).split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static long parseId(String segment) {
+        try {
+            return Long.parseLong(segment);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Tidak ditemukan.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readObject(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request terlalu besar.");
+        }
+        Object value = Json.parse(new String(body, StandardCharsets.UTF_8));
+        if (!(value instanceof Map)) {
+            throw new ApiException(400, "Body harus berupa objek JSON.");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String stringField(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof String value) || value.isBlank()) {
+            throw new ApiException(400, "Field " + field + " wajib diisi.");
+        }
+        return value;
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
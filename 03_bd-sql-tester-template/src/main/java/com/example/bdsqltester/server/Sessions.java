@@ -0,0 +1,63 @@
+package com.example.bdsqltester.server;
+
+import com.example.bdsqltester.dtos.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+class Sessions {
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(Long.getLong("bdsqltester.server.sessionTtlMinutes", 240L));
+
+    record Session(User user, String role) {
+        boolean isAdmin() {
+            return role.equals("admin");
+        }
+    }
+
+    private static class Entry {
+        final Session session;
+        volatile long expiresAt;
+
+        Entry(Session session) {
+            this.session = session;
+            this.expiresAt = System.nanoTime() + TTL_NANOS;
+        }
+    }
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    String create(User user, String role) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Entry(new Session(user, role)));
+        return token;
+    }
+
+    Session get(String token) {
+        Entry entry = sessions.get(token);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.expiresAt - now < 0) {
+            sessions.remove(token);
+            return null;
+        }
+        entry.expiresAt = now + TTL_NANOS;
+        return entry.session;
+    }
+
+    void remove(String token) {
+        sessions.remove(token);
+    }
+
+    void purgeExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(entry -> entry.expiresAt - now < 0);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import com.example.bdsqltester.grading.AnswerKeyCache;
+import com.example.bdsqltester.grading.SubmissionCache;
+import com.example.bdsqltester.repositories.AssignmentRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class AssignmentCatalog {
+    private static final Logger log = LoggerFactory.getLogger(AssignmentCatalog.class);
+
+    private static final String CHANNEL = "assignments_changed";
+    private static final String GRADES_CHANNEL = "grades_changed";
+    private static final int POLL_MILLIS = 1000;
+    private static final long RECONNECT_MILLIS = Long.getLong("bdsqltester.catalog.reconnectMillis", 5000L);
+
+    private static final Map<Long, AssignmentSummary> summaries = new ConcurrentSkipListMap<>();
+    private static final Map<Long, Assignment> details = new ConcurrentHashMap<>();
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private static boolean loaded;
+    private static volatile boolean running;
+    private static Thread listenerThread;
+
+    private AssignmentCatalog() {
+    }
+
+    public static List<AssignmentSummary> summaries() throws SQLException {
+        ensureLoaded();
+        return new ArrayList<>(summaries.values());
+    }
+
+    public static Assignment details(long assignmentId) throws SQLException {
+        return find(assignmentId).orElseThrow(() -> new SQLException("Assignment " + assignmentId + " tidak ditemukan."));
+    }
+
+    public static Optional<Assignment> find(long assignmentId) throws SQLException {
+        Assignment cached = details.get(assignmentId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Assignment> assignment = AssignmentRepository.findById(assignmentId);
+        assignment.ifPresent(found -> details.put(assignmentId, found));
+        return assignment;
+    }
+
+    public static void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public static void refresh(long assignmentId) throws SQLException {
+        details.remove(assignmentId);
+        AnswerKeyCache.invalidate(assignmentId);
+        SubmissionCache.invalidate(assignmentId);
+        Optional<AssignmentSummary> summary = AssignmentRepository.findSummary(assignmentId);
+        if (summary.isPresent()) {
+            summaries.put(assignmentId, summary.get());
+        } else {
+            summaries.remove(assignmentId);
+        }
+        fireChanged();
+    }
+
+    public static void remove(long assignmentId) {
+        details.remove(assignmentId);
+        AnswerKeyCache.invalidate(assignmentId);
+        SubmissionCache.invalidate(assignmentId);
+        if (summaries.remove(assignmentId) != null) {
+            fireChanged();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    private static synchronized void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        reloadAll();
+        loaded = true;
+        running = true;
+        listenerThread = Thread.ofVirtual().name("assignment-catalog").start(AssignmentCatalog::listen);
+    }
+
+    private static void reloadAll() throws SQLException {
+        Map<Long, AssignmentSummary> fresh = new ConcurrentSkipListMap<>();
+        for (AssignmentSummary summary : AssignmentRepository.findAllSummaries()) {
+            fresh.put(summary.getId(), summary);
+        }
+        summaries.keySet().retainAll(fresh.keySet());
+        summaries.putAll(fresh);
+        details.clear();
+    }
+
+    private static void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = MainDataSource.getConnection()) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                    stmt.execute("LISTEN " + GRADES_CHANNEL);
+                }
+                // Notifikasi yang terkirim selama koneksi terputus hilang, jadi daftar dimuat ulang seluruhnya
+                if (reconnecting) {
+                    GradeReport.invalidateAll();
+                    reloadAll();
+                    fireChanged();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            if (GRADES_CHANNEL.equals(notification.getName())) {
+                                applyGrades(notification.getParameter());
+                            } else {
+                                apply(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Assignment catalog listener disconnected, retrying in {} ms", RECONNECT_MILLIS, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void apply(String payload) throws SQLException {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed assignment notification: {}", payload);
+            return;
+        }
+        long assignmentId = Long.parseLong(payload.substring(separator + 1));
+        if (payload.startsWith("DELETE")) {
+            remove(assignmentId);
+        } else {
+            refresh(assignmentId);
+        }
+    }
+
+    private static void applyGrades(String payload) {
+        try {
+            GradeReport.invalidate(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed grades notification: {}", payload);
+        }
+    }
+
+    private static void fireChanged() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.repositories.AssignmentRepository;
+
+import java.sql.SQLException;
+
+public class AssignmentService {
+
+    private AssignmentService() {
+    }
+
+    public static long save(Long assignmentId, String name, String instructions, String answerKey) throws SQLException {
+        long id;
+        if (assignmentId == null) {
+            id = AssignmentRepository.insert(name, instructions, answerKey);
+        } else if (AssignmentRepository.update(assignmentId, name, instructions, answerKey)) {
+            id = assignmentId;
+        } else {
+            return -1;
+        }
+        AssignmentCatalog.refresh(id);
+        return id;
+    }
+
+    public static boolean delete(long assignmentId) throws SQLException {
+        if (!AssignmentRepository.delete(assignmentId)) {
+            return false;
+        }
+        AssignmentCatalog.remove(assignmentId);
+        return true;
+    }
+}
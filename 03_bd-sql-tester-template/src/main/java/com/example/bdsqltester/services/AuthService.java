@@ -0,0 +1,215 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.User;
+import com.example.bdsqltester.repositories.UserRepository;
+import com.example.bdsqltester.repositories.UserRepository.Credentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class AuthService {
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
+    private static final int HASH_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int QUEUE_CAPACITY = Integer.getInteger("bdsqltester.auth.queueCapacity", 256);
+    private static final long CACHE_TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("bdsqltester.auth.cacheTtlSeconds", 300L));
+    private static final int CACHE_ENTRIES = 256;
+    private static final int MIGRATION_BATCH_SIZE = 100;
+    private static final boolean MIGRATE_PASSWORDS = Boolean.parseBoolean(System.getProperty("bdsqltester.auth.migratePasswords", "true"));
+    private static final long MIGRATION_LOCK_KEY = 0x5C_4E_50_57L;
+
+    private static final ThreadPoolExecutor hashExecutor = new ThreadPoolExecutor(
+            HASH_THREADS, HASH_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private static final byte[] cacheSalt = new byte[16];
+
+    static {
+        new SecureRandom().nextBytes(cacheSalt);
+    }
+
+    private record CacheKey(String username, String role) {
+    }
+
+    private record Verified(String storedPassword, byte[] passwordDigest, long expiresAt) {
+    }
+
+    private static final Map<CacheKey, Verified> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Verified> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+
+    private AuthService() {
+    }
+
+    public static Optional<User> authenticate(String username, String password, String role) throws SQLException {
+        if (password == null || password.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Credentials> found = UserRepository.findCredentials(username, role);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Credentials stored = found.get();
+        User user = stored.user();
+
+        CacheKey key = new CacheKey(username, role);
+        byte[] digest = digest(password);
+        Verified cached = getVerified(key);
+        if (cached != null && cached.storedPassword().equals(stored.password())
+                && MessageDigest.isEqual(cached.passwordDigest(), digest)) {
+            return Optional.of(user);
+        }
+
+        if (!submitHash(() -> PasswordHasher.verify(password, stored.password()))) {
+            return Optional.empty();
+        }
+        String current = stored.password();
+        if (PasswordHasher.needsRehash(current)) {
+            String rehashed = submitHash(() -> PasswordHasher.hash(password));
+            if (UserRepository.updatePassword(user.getId(), current, rehashed)) {
+                current = rehashed;
+            }
+        }
+        putVerified(key, new Verified(current, digest, System.nanoTime() + CACHE_TTL_NANOS));
+        return Optional.of(user);
+    }
+
+    public static void startPasswordMigration() {
+        if (!MIGRATE_PASSWORDS) {
+            return;
+        }
+        Thread.ofPlatform().name("password-migration").daemon().priority(Thread.MIN_PRIORITY).start(() -> {
+            try {
+                migratePlaintextPasswords();
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Password migration failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    public static int migratePlaintextPasswords() throws SQLException {
+        try (Connection lockConnection = MainDataSource.getConnection();
+             Statement lock = lockConnection.createStatement()) {
+            try (ResultSet rs = lock.executeQuery("SELECT pg_try_advisory_lock(" + MIGRATION_LOCK_KEY + ")")) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    log.debug("Password migration already running elsewhere");
+                    return 0;
+                }
+            }
+            try {
+                return migrateBatches();
+            } finally {
+                lock.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
+            }
+        }
+    }
+
+    private static int migrateBatches() throws SQLException {
+        int migrated = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Credentials> batch = UserRepository.findWithoutPasswordPrefix(PasswordHasher.PREFIX, lastId, MIGRATION_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<String> hashes = new ArrayList<>(batch.size());
+            for (Credentials user : batch) {
+                hashes.add(PasswordHasher.hash(user.password()));
+            }
+            migrated += UserRepository.updatePasswords(batch, hashes);
+            lastId = batch.get(batch.size() - 1).user().getId();
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} plaintext passwords to PBKDF2", migrated);
+        }
+        return migrated;
+    }
+
+    static List<String> hashAll(List<String> passwords) {
+        List<String> hashes = new ArrayList<>(passwords.size());
+        for (int from = 0; from < passwords.size(); from += HASH_THREADS) {
+            List<CompletableFuture<String>> wave = new ArrayList<>(HASH_THREADS);
+            for (String password : passwords.subList(from, Math.min(from + HASH_THREADS, passwords.size()))) {
+                try {
+                    wave.add(CompletableFuture.supplyAsync(() -> PasswordHasher.hash(password), hashExecutor));
+                } catch (RejectedExecutionException e) {
+                    wave.add(CompletableFuture.completedFuture(PasswordHasher.hash(password)));
+                }
+            }
+            for (CompletableFuture<String> hash : wave) {
+                hashes.add(hash.join());
+            }
+        }
+        return hashes;
+    }
+
+    public static void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    private static <T> T submitHash(Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, hashExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hash queue full ({} pending), rejecting login", hashExecutor.getQueue().size());
+            throw new RejectedExecutionException("Terlalu banyak login bersamaan, silakan coba lagi sebentar lagi.", e);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private static synchronized Verified getVerified(CacheKey key) {
+        Verified entry = verified.get(key);
+        if (entry != null && entry.expiresAt() - System.nanoTime() < 0) {
+            verified.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private static synchronized void putVerified(CacheKey key, Verified entry) {
+        verified.put(key, entry);
+    }
+
+    private static byte[] digest(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(cacheSalt);
+            return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
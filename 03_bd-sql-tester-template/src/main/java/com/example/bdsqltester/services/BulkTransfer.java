@@ -0,0 +1,158 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.AssignmentSummary;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <ul>
+ *     <li>users.csv: header lalu kolom username,password,role (role admin atau user)</li>
+ *     <li>assignments.csv: header lalu kolom name,instructions,answer_key</li>
+ * </ul>
+ */
+public class BulkTransfer {
+    private static final Logger log = LoggerFactory.getLogger(BulkTransfer.class);
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int HASH_BATCH_SIZE = 100;
+
+    private static final String NEW_USERS = "SELECT DISTINCT ON (trim(i.username)) i.* FROM users_import i "
+            + "WHERE trim(i.username) <> '' AND i.password <> '' AND lower(trim(i.role)) IN ('admin', 'user') "
+            + "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.username = trim(i.username)) "
+            + "ORDER BY trim(i.username), i.line";
+
+    private interface StagingStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private BulkTransfer() {
+    }
+
+    public static long importUsers(Path csv) throws SQLException, IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(csv), BUFFER_BYTES)) {
+            return importUsers(in);
+        }
+    }
+
+    public static long importUsers(InputStream csv) throws SQLException, IOException {
+        long imported = importCsv(csv,
+                "CREATE TEMP TABLE users_import (line BIGINT GENERATED ALWAYS AS IDENTITY, username TEXT, password TEXT, role TEXT) ON COMMIT DROP",
+                "COPY users_import (username, password, role) FROM STDIN WITH (FORMAT csv, HEADER true)",
+                BulkTransfer::hashImportedPasswords,
+                "INSERT INTO users (username, password, role) "
+                        + "SELECT trim(i.username), i.password, lower(trim(i.role)) FROM (" + NEW_USERS + ") i "
+                        + "ORDER BY trim(i.username)");
+        log.info("Imported {} users", imported);
+        return imported;
+    }
+
+    private static void hashImportedPasswords(Connection connection) throws SQLException {
+        List<Long> lines = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT n.line, n.password FROM (" + NEW_USERS + ") n WHERE NOT starts_with(n.password, ?)")) {
+            select.setString(1, PasswordHasher.PREFIX);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    lines.add(rs.getLong(1));
+                    passwords.add(rs.getString(2));
+                }
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement("UPDATE users_import SET password = ? WHERE line = ?")) {
+            for (int from = 0; from < lines.size(); from += HASH_BATCH_SIZE) {
+                int to = Math.min(from + HASH_BATCH_SIZE, lines.size());
+                List<String> hashes = AuthService.hashAll(passwords.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    update.setString(1, hashes.get(i - from));
+                    update.setLong(2, lines.get(i));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+    }
+
+    public static long importAssignments(Path csv) throws SQLException, IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(csv), BUFFER_BYTES)) {
+            return importAssignments(in);
+        }
+    }
+
+    public static long importAssignments(InputStream csv) throws SQLException, IOException {
+        long imported = importCsv(csv,
+                "CREATE TEMP TABLE assignments_import (name TEXT, instructions TEXT, answer_key TEXT) ON COMMIT DROP",
+                "COPY assignments_import (name, instructions, answer_key) FROM STDIN WITH (FORMAT csv, HEADER true)",
+                connection -> {
+                },
+                "INSERT INTO assignments (name, instructions, answer_key) "
+                        + "SELECT name, instructions, answer_key FROM assignments_import "
+                        + "WHERE coalesce(trim(name), '') <> '' AND coalesce(trim(answer_key), '') <> ''");
+        log.info("Imported {} assignments", imported);
+        return imported;
+    }
+
+    public static void exportGradeMatrix(Path csv) throws SQLException, IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(csv), BUFFER_BYTES)) {
+            exportGradeMatrix(out);
+        }
+    }
+
+    public static long exportGradeMatrix(OutputStream out) throws SQLException, IOException {
+        List<AssignmentSummary> assignments = AssignmentCatalog.summaries();
+        StringBuilder sql = new StringBuilder("COPY (SELECT u.username");
+        for (AssignmentSummary assignment : assignments) {
+            String column = assignment.getId() + " " + assignment.getName();
+            sql.append(", max(g.grade) FILTER (WHERE g.assignment_id = ").append(assignment.getId())
+                    .append(") AS \"").append(column.replace("\"", "\"\"")).append('"');
+        }
+        sql.append(" FROM users u LEFT JOIN grades g ON g.user_id = u.id WHERE u.role = 'user'")
+                .append(" GROUP BY u.id, u.username ORDER BY u.username) TO STDOUT WITH (FORMAT csv, HEADER true)");
+
+        try (Connection connection = MainDataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            long rows = copy.copyOut(sql.toString(), out);
+            out.flush();
+            log.info("Exported grade matrix: {} students x {} assignments", rows, assignments.size());
+            return rows;
+        }
+    }
+
+    private static long importCsv(InputStream in, String createStaging, String copySql, StagingStep beforeInsert, String insertSql)
+            throws SQLException, IOException {
+        try (Connection connection = MainDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(createStaging);
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+                copy.copyIn(copySql, in, BUFFER_BYTES);
+                beforeInsert.apply(connection);
+                long inserted = stmt.executeUpdate(insertSql);
+                connection.commit();
+                return inserted;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bdsqltester.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class ExecutionGuard {
+    private static final String QUERY_CANCELED = "57014";
+
+    private final ExecutionLimits limits;
+    private final QueryHandle handle;
+    private long rows;
+    private long bytes;
+
+    public ExecutionGuard(ExecutionLimits limits, QueryHandle handle) {
+        this.limits = limits;
+        this.handle = handle;
+    }
+
+    public void prepare(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SET LOCAL statement_timeout = " + limits.getTimeoutSeconds() * 1000L);
+        }
+    }
+
+    public void suspend(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SET LOCAL statement_timeout = 0");
+        }
+    }
+
+    public QueryPlan checkPlan(Connection connection, String sql) throws SQLException {
+        if (limits.getMaxPlanCost() <= 0) {
+            return null;
+        }
+        QueryPlan plan = QueryPlan.explain(connection, sql);
+        if (plan == null) {
+            return null;
+        }
+        if (plan.getTotalCost() > limits.getMaxPlanCost()) {
+            throw rejected(ExecutionLimits.Limit.PLAN_COST,
+                    String.format(" (%.0f, batas %.0f)", plan.getTotalCost(), limits.getMaxPlanCost()), plan);
+        }
+        if (limits.getMaxPlanRows() > 0 && plan.getPlanRows() > limits.getMaxPlanRows()) {
+            throw rejected(ExecutionLimits.Limit.PLAN_ROWS,
+                    " (" + plan.getPlanRows() + ", batas " + limits.getMaxPlanRows() + ")", plan);
+        }
+        if (plan.getTotalCost() > limits.getMaxPlanCost() / 2) {
+            plan.addWarning("perkiraan biaya mendekati batas (" + String.format("%.0f", limits.getMaxPlanCost()) + ").");
+        }
+        return plan;
+    }
+
+    public void apply(Statement stmt) throws SQLException {
+        stmt.setQueryTimeout(limits.getTimeoutSeconds());
+        if (limits.getMaxRows() > 0 && limits.getMaxRows() < Integer.MAX_VALUE) {
+            stmt.setMaxRows((int) limits.getMaxRows() + 1);
+        }
+        handle.register(stmt);
+    }
+
+    public void onRow(long rowBytes) throws LimitExceededException {
+        rows++;
+        if (rows > limits.getMaxRows()) {
+            throw exceeded(ExecutionLimits.Limit.MAX_ROWS, " (" + limits.getMaxRows() + " baris)");
+        }
+        bytes += rowBytes;
+        if (bytes > limits.getMaxBytes()) {
+            throw exceeded(ExecutionLimits.Limit.MAX_BYTES, " (" + limits.getMaxBytes() + " byte)");
+        }
+    }
+
+    public LimitExceededException translate(SQLException e) {
+        if (e instanceof LimitExceededException limitExceeded) {
+            return limitExceeded;
+        }
+        if (isCancellation(e)) {
+            if (handle.isCancelled()) {
+                return exceeded(ExecutionLimits.Limit.CANCELLED, "");
+            }
+            return exceeded(ExecutionLimits.Limit.TIMEOUT, " (" + limits.getTimeoutSeconds() + " detik)");
+        }
+        return null;
+    }
+
+    static boolean isCancellation(SQLException e) {
+        return QUERY_CANCELED.equals(e.getSQLState());
+    }
+
+    private static LimitExceededException rejected(ExecutionLimits.Limit limit, String detail, QueryPlan plan) {
+        return new LimitExceededException(limit, "Query ditolak: " + limit.getDescription() + detail + ".\n" + plan.summary());
+    }
+
+    private static LimitExceededException exceeded(ExecutionLimits.Limit limit, String detail) {
+        return new LimitExceededException(limit, "Query dihentikan: " + limit.getDescription() + detail + ".");
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
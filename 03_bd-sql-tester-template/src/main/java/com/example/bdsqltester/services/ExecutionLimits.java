@@ -0,0 +1,89 @@
+package com.example.bdsqltester.services;
+
+/**
+ * Diatur lewat system property bdsqltester.limits.* dan bdsqltester.limits.assignment.&lt;id&gt;.*, per instalasi:
+ * setiap proses yang menilai harus dijalankan dengan property yang sama.
+ */
+public class ExecutionLimits {
+    public enum Limit {
+        TIMEOUT("batas waktu eksekusi terlampaui"),
+        MAX_ROWS("jumlah baris melebihi batas"),
+        MAX_BYTES("ukuran hasil melebihi batas"),
+        CANCELLED("query dibatalkan oleh pengguna"),
+        PLAN_COST("perkiraan biaya query melebihi batas"),
+        PLAN_ROWS("perkiraan jumlah baris melebihi batas");
+
+        private final String description;
+
+        Limit(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final int DEFAULT_TIMEOUT_SECONDS = Integer.getInteger("bdsqltester.limits.timeoutSeconds", 10);
+    private static final long DEFAULT_MAX_ROWS = Long.getLong("bdsqltester.limits.maxRows", 10_000L);
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("bdsqltester.limits.maxBytes", 16L * 1024 * 1024);
+    private static final double DEFAULT_MAX_PLAN_COST = doubleProperty("bdsqltester.limits.maxPlanCost", 1_000_000);
+    private static final long DEFAULT_MAX_PLAN_ROWS = Long.getLong("bdsqltester.limits.maxPlanRows", 1_000_000L);
+    private static final long SUBMISSION_ROW_MARGIN = Long.getLong("bdsqltester.limits.submissionRowMargin", 100L);
+
+    private final int timeoutSeconds;
+    private final long maxRows;
+    private final long maxBytes;
+    private final double maxPlanCost;
+    private final long maxPlanRows;
+
+    public ExecutionLimits(int timeoutSeconds, long maxRows, long maxBytes, double maxPlanCost, long maxPlanRows) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.maxPlanCost = maxPlanCost;
+        this.maxPlanRows = maxPlanRows;
+    }
+
+    public static ExecutionLimits defaults() {
+        return new ExecutionLimits(DEFAULT_TIMEOUT_SECONDS, DEFAULT_MAX_ROWS, DEFAULT_MAX_BYTES,
+                DEFAULT_MAX_PLAN_COST, DEFAULT_MAX_PLAN_ROWS);
+    }
+
+    public static ExecutionLimits forAssignment(long assignmentId) {
+        String prefix = "bdsqltester.limits.assignment." + assignmentId;
+        int timeout = Integer.getInteger(prefix + ".timeoutSeconds", DEFAULT_TIMEOUT_SECONDS);
+        double maxPlanCost = doubleProperty(prefix + ".maxPlanCost", DEFAULT_MAX_PLAN_COST);
+        long maxPlanRows = Long.getLong(prefix + ".maxPlanRows", DEFAULT_MAX_PLAN_ROWS);
+        return new ExecutionLimits(timeout, DEFAULT_MAX_ROWS, DEFAULT_MAX_BYTES, maxPlanCost, maxPlanRows);
+    }
+
+    public ExecutionLimits forSubmission(long expectedRows) {
+        return new ExecutionLimits(timeoutSeconds, expectedRows + SUBMISSION_ROW_MARGIN, maxBytes, maxPlanCost, maxPlanRows);
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public double getMaxPlanCost() {
+        return maxPlanCost;
+    }
+
+    public long getMaxPlanRows() {
+        return maxPlanRows;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.MainDataSource;
+import com.example.bdsqltester.dtos.Grade;
+import com.example.bdsqltester.repositories.GradeRepository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GradeReport {
+    public static final int PAGE_SIZE = 100;
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    private static final String STATISTICS_SQL =
+            "SELECT count(*) AS n, avg(grade) AS mean, min(grade) AS min, max(grade) AS max, " +
+                    "percentile_cont(ARRAY[0.25, 0.5, 0.75, 0.9]) WITHIN GROUP (ORDER BY grade) AS percentiles, " +
+                    "(SELECT array_agg(coalesce(h.n, 0) ORDER BY b.bucket) " +
+                    " FROM generate_series(1, " + HISTOGRAM_BUCKETS + ") AS b(bucket) " +
+                    " LEFT JOIN (SELECT least(greatest(width_bucket(grade, 0, 100, " + HISTOGRAM_BUCKETS + "), 1), " + HISTOGRAM_BUCKETS + ") AS bucket, count(*) AS n " +
+                    "            FROM grades WHERE assignment_id = ? GROUP BY 1) h ON h.bucket = b.bucket) AS histogram " +
+                    "FROM grades WHERE assignment_id = ?";
+
+    public static class Statistics {
+        private final long count;
+        private final double mean;
+        private final double min;
+        private final double max;
+        private final double[] percentiles;
+        private final long[] histogram;
+
+        public Statistics(long count, double mean, double min, double max, double[] percentiles, long[] histogram) {
+            this.count = count;
+            this.mean = mean;
+            this.min = min;
+            this.max = max;
+            this.percentiles = percentiles;
+            this.histogram = histogram;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getP25() {
+            return percentiles[0];
+        }
+
+        public double getMedian() {
+            return percentiles[1];
+        }
+
+        public double getP75() {
+            return percentiles[2];
+        }
+
+        public double getP90() {
+            return percentiles[3];
+        }
+
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+    }
+
+    private static class Pages {
+        private final long generation;
+        private final List<Grade> rows = new ArrayList<>();
+        private boolean exhausted;
+
+        private Pages(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    public record Page(List<Grade> rows, boolean exhausted) {
+    }
+
+    private record CachedStatistics(long generation, Statistics statistics) {
+    }
+
+    private static final Map<Long, Pages> pages = new ConcurrentHashMap<>();
+    private static final Map<Long, CachedStatistics> statistics = new ConcurrentHashMap<>();
+
+    private static final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private static final AtomicLong allGeneration = new AtomicLong();
+
+    private GradeReport() {
+    }
+
+    public static Page pageAfter(long assignmentId, long afterUserId) throws SQLException {
+        Pages cached = currentPages(assignmentId);
+        if (cached != null) {
+            synchronized (cached) {
+                int from = 0;
+                while (from < cached.rows.size() && cached.rows.get(from).getUserId() <= afterUserId) {
+                    from++;
+                }
+                if (from < cached.rows.size() || cached.exhausted) {
+                    int to = Math.min(from + PAGE_SIZE, cached.rows.size());
+                    return new Page(new ArrayList<>(cached.rows.subList(from, to)), cached.exhausted && to == cached.rows.size());
+                }
+            }
+        }
+        List<Grade> rows = loadPage(assignmentId, afterUserId);
+        return new Page(rows, rows.size() < PAGE_SIZE);
+    }
+
+    private static List<Grade> loadPage(long assignmentId, long afterUserId) throws SQLException {
+        long generation = generation(assignmentId);
+        Pages cached = pages.compute(assignmentId,
+                (id, existing) -> existing != null && existing.generation == generation ? existing : new Pages(generation));
+        synchronized (cached) {
+            long lastUserId = cached.rows.isEmpty() ? Long.MIN_VALUE : cached.rows.get(cached.rows.size() - 1).getUserId();
+            List<Grade> page = GradeRepository.findPage(assignmentId, afterUserId, PAGE_SIZE);
+            if (lastUserId == afterUserId && !cached.exhausted && generation(assignmentId) == generation) {
+                cached.rows.addAll(page);
+                cached.exhausted = page.size() < PAGE_SIZE;
+            }
+            return page;
+        }
+    }
+
+    public static Statistics statistics(long assignmentId) throws SQLException {
+        long generation = generation(assignmentId);
+        CachedStatistics cached = statistics.get(assignmentId);
+        if (cached != null && cached.generation() == generation) {
+            return cached.statistics();
+        }
+        try (Connection connection = MainDataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(STATISTICS_SQL)) {
+            stmt.setLong(1, assignmentId);
+            stmt.setLong(2, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                Statistics result = new Statistics(
+                        rs.getLong("n"),
+                        rs.getDouble("mean"),
+                        rs.getDouble("min"),
+                        rs.getDouble("max"),
+                        toDoubles(rs.getArray("percentiles"), 4),
+                        toLongs(rs.getArray("histogram"))
+                );
+                if (generation(assignmentId) == generation) {
+                    statistics.put(assignmentId, new CachedStatistics(generation, result));
+                }
+                return result;
+            }
+        }
+    }
+
+    public static void invalidate(long assignmentId) {
+        generations.computeIfAbsent(assignmentId, id -> new AtomicLong()).incrementAndGet();
+        pages.remove(assignmentId);
+        statistics.remove(assignmentId);
+    }
+
+    // Notifikasi yang terkirim selama koneksi LISTEN terputus hilang, jadi semua laporan dibuang
+    public static void invalidateAll() {
+        allGeneration.incrementAndGet();
+        pages.clear();
+        statistics.clear();
+    }
+
+    private static long generation(long assignmentId) {
+        AtomicLong own = generations.get(assignmentId);
+        return allGeneration.get() + (own == null ? 0 : own.get());
+    }
+
+    private static Pages currentPages(long assignmentId) {
+        Pages cached = pages.get(assignmentId);
+        return cached != null && cached.generation == generation(assignmentId) ? cached : null;
+    }
+
+    private static double[] toDoubles(Array array, int length) throws SQLException {
+        double[] values = new double[length];
+        if (array != null) {
+            Double[] boxed = (Double[]) array.getArray();
+            for (int i = 0; i < length; i++) {
+                values[i] = boxed[i] == null ? 0 : boxed[i];
+            }
+        }
+        return values;
+    }
+
+    private static long[] toLongs(Array array) throws SQLException {
+        Long[] boxed = (Long[]) array.getArray();
+        long[] values = new long[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            values[i] = boxed[i];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.metrics.Counter;
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.repositories.GradeRepository;
+
+import java.sql.SQLException;
+import java.util.OptionalDouble;
+
+public class GradeStore {
+    private static final Counter submissions = Metrics.counter("submissions_total", "Submissions saved");
+
+    private GradeStore() {
+    }
+
+    public static double saveSubmission(long assignmentId, long userId, String answer, double grade) throws SQLException {
+        try {
+            double best = GradeRepository.saveSubmission(assignmentId, userId, answer, grade);
+            submissions.increment();
+            return best;
+        } finally {
+            GradeReport.invalidate(assignmentId);
+        }
+    }
+
+    public static OptionalDouble loadGrade(long assignmentId, long userId) throws SQLException {
+        return GradeRepository.findGrade(assignmentId, userId);
+    }
+}
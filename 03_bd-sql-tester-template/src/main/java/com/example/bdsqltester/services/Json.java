@@ -0,0 +1,244 @@
+package com.example.bdsqltester.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Json {
+
+    private Json() {
+    }
+
+    public static Object parse(String text) {
+        Reader reader = new Reader(text);
+        Object value = reader.read();
+        reader.skipWhitespace();
+        if (reader.pos != text.length()) {
+            throw new IllegalArgumentException("Unexpected content after JSON value at position " + reader.pos);
+        }
+        return value;
+    }
+
+    public static Map<String, Object> object(Object... keysAndValues) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            object.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return object;
+    }
+
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(out, value);
+        return out.toString();
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String text) {
+            writeString(out, text);
+        } else if (value instanceof Double d && (d.isNaN() || d.isInfinite())
+                || value instanceof Float f && (f.isNaN() || f.isInfinite())) {
+            out.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                write(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                write(out, element);
+            }
+            out.append(']');
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static class Reader {
+        private final String text;
+        private int pos;
+
+        Reader(String text) {
+            this.text = text;
+        }
+
+        Object read() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return switch (text.charAt(pos)) {
+                case '{' -> readObject();
+                case '[' -> readArray();
+                case '"' -> readString();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> readNumber();
+            };
+        }
+
+        private Object literal(String token, Object value) {
+            if (!text.startsWith(token, pos)) {
+                throw new IllegalArgumentException("Invalid JSON literal at position " + pos);
+            }
+            pos += token.length();
+            return value;
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, read());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or '}' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(read());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return array;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or ']' at position " + (pos - 1));
+                }
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\') {
+                    char escaped = next();
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 't' -> value.append('\t');
+                        case 'r' -> value.append('\r');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (pos + 4 > text.length()) {
+                                throw new IllegalArgumentException("Truncated unicode escape");
+                            }
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("Unexpected character at position " + pos);
+            }
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at position " + (pos - 1));
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
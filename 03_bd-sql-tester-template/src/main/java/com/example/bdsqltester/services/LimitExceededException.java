@@ -0,0 +1,20 @@
+package com.example.bdsqltester.services;
+
+import java.io.Serial;
+import java.sql.SQLException;
+
+public class LimitExceededException extends SQLException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final ExecutionLimits.Limit limit;
+
+    public LimitExceededException(ExecutionLimits.Limit limit, String message) {
+        super(message);
+        this.limit = limit;
+    }
+
+    public ExecutionLimits.Limit getLimit() {
+        return limit;
+    }
+}
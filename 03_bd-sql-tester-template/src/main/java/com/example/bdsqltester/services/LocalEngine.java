@@ -0,0 +1,221 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.LocalDataSource;
+import com.example.bdsqltester.grading.SqlNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class LocalEngine {
+    private static final Logger log = LoggerFactory.getLogger(LocalEngine.class);
+
+    private static final boolean ENABLED = Boolean.getBoolean("bdsqltester.local.enabled");
+    private static final int BATCH_SIZE = 500;
+
+    private enum State { IDLE, LOADING, READY, FAILED }
+
+    private static final Map<Pattern, String> UNSUPPORTED = new LinkedHashMap<>();
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    static {
+        UNSUPPORTED.put(Pattern.compile("\\bgenerate_series\\s*\\("), "generate_series tidak tersedia di mesin lokal.");
+        UNSUPPORTED.put(Pattern.compile("\\blateral\\b"), "join LATERAL tidak didukung mesin lokal.");
+        UNSUPPORTED.put(Pattern.compile("!?~\\*?|\\bsimilar to\\b"), "operator regex PostgreSQL dapat berperilaku berbeda.");
+        UNSUPPORTED.put(Pattern.compile("\\binterval\\b|\\bage\\s*\\(|\\bjustify_\\w+\\s*\\("), "aritmetika interval dapat menghasilkan format berbeda.");
+        UNSUPPORTED.put(Pattern.compile("\\bto_(char|date|number|timestamp)\\s*\\("), "pola format to_char/to_date dapat berbeda.");
+        UNSUPPORTED.put(Pattern.compile("\\bdate_part\\s*\\(|\\bextract\\s*\\(\\s*(epoch|dow|isodow|doy|week)\\b"), "bagian tanggal seperti epoch atau dow dapat berbeda.");
+        UNSUPPORTED.put(Pattern.compile("\\bavg\\s*\\(|\\bstddev\\w*\\s*\\(|\\bvariance\\s*\\("), "jumlah digit desimal hasil agregat dapat berbeda.");
+        UNSUPPORTED.put(Pattern.compile("\\bpg_\\w+|\\binformation_schema\\b"), "katalog sistem mesin lokal berbeda dengan PostgreSQL.");
+        UNSUPPORTED.put(Pattern.compile("\\bcollate\\b"), "collation PostgreSQL tidak tersedia di mesin lokal.");
+    }
+
+    private static State state = State.IDLE;
+
+    private LocalEngine() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static synchronized void prepare() {
+        if (!ENABLED || state != State.IDLE) {
+            return;
+        }
+        if (!LocalDataSource.isDriverAvailable()) {
+            log.warn("Local engine enabled but no H2 driver found; Test runs will use the server");
+            state = State.FAILED;
+            return;
+        }
+        state = State.LOADING;
+        Thread.ofVirtual().name("local-engine-load").start(() -> {
+            long start = System.nanoTime();
+            try {
+                int rows = loadSnapshot();
+                log.info("Local engine snapshot loaded: {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+                setState(State.READY);
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Loading local engine snapshot failed; Test runs will use the server", e);
+                setState(State.FAILED);
+            }
+        });
+    }
+
+    public static synchronized boolean isReady() {
+        return state == State.READY;
+    }
+
+    public static List<String> compatibilityWarnings(String sql) {
+        String normalized = STRING_LITERAL.matcher(SqlNormalizer.normalize(sql)).replaceAll("''");
+        List<String> warnings = new ArrayList<>();
+        for (Map.Entry<Pattern, String> entry : UNSUPPORTED.entrySet()) {
+            if (entry.getKey().matcher(normalized).find()) {
+                warnings.add(entry.getValue());
+            }
+        }
+        return warnings;
+    }
+
+    public static synchronized void shutdown() {
+        if (state == State.READY) {
+            try {
+                LocalDataSource.shutdown();
+            } catch (SQLException e) {
+                log.debug("Local engine shutdown failed: {}", e.getMessage());
+            }
+        }
+        state = State.IDLE;
+    }
+
+    private static synchronized void setState(State newState) {
+        state = newState;
+    }
+
+    private static int loadSnapshot() throws SQLException {
+        int rows = 0;
+        try (Connection source = QueryExecutionService.getConnection();
+             Connection target = LocalDataSource.getOwnerConnection()) {
+            source.setAutoCommit(false);
+            target.setAutoCommit(false);
+            try {
+                List<String> tables = new ArrayList<>();
+                for (String table : sourceTables(source)) {
+                    List<Column> columns = sourceColumns(source, table);
+                    try (Statement stmt = target.createStatement()) {
+                        stmt.execute("CREATE TABLE " + quote(table) + " (" + columnDefinitions(columns) + ")");
+                    }
+                    rows += copyRows(source, target, table, columns);
+                    tables.add(quote(table));
+                }
+                LocalDataSource.grantReader(target, tables);
+                target.commit();
+            } finally {
+                source.rollback();
+            }
+        }
+        return rows;
+    }
+
+    private record Column(String name, String type, Integer length, Integer precision, Integer scale) {
+    }
+
+    private static List<String> sourceTables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement stmt = source.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT table_name FROM information_schema.tables " +
+                     "WHERE table_schema = current_schema() AND table_type IN ('BASE TABLE', 'VIEW') ORDER BY table_name")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private static List<Column> sourceColumns(Connection source, String table) throws SQLException {
+        List<Column> columns = new ArrayList<>();
+        try (PreparedStatement stmt = source.prepareStatement(
+                "SELECT column_name, data_type, character_maximum_length, numeric_precision, numeric_scale " +
+                        "FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = ? " +
+                        "ORDER BY ordinal_position")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(new Column(rs.getString(1), rs.getString(2), rs.getObject(3, Integer.class),
+                            rs.getObject(4, Integer.class), rs.getObject(5, Integer.class)));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String columnDefinitions(List<Column> columns) {
+        StringBuilder sql = new StringBuilder();
+        for (Column column : columns) {
+            if (!sql.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(quote(column.name())).append(' ').append(localType(column));
+        }
+        return sql.toString();
+    }
+
+    private static String localType(Column column) {
+        return switch (column.type()) {
+            case "smallint", "integer", "bigint", "boolean", "real", "double precision", "date" -> column.type().toUpperCase(Locale.ROOT);
+            case "numeric" -> column.precision() == null ? "NUMERIC"
+                    : "NUMERIC(" + column.precision() + ", " + (column.scale() == null ? 0 : column.scale()) + ")";
+            case "character" -> "CHAR(" + (column.length() == null ? 1 : column.length()) + ")";
+            case "character varying" -> column.length() == null ? "VARCHAR" : "VARCHAR(" + column.length() + ")";
+            case "timestamp without time zone" -> "TIMESTAMP";
+            case "timestamp with time zone" -> "TIMESTAMP WITH TIME ZONE";
+            case "time without time zone" -> "TIME";
+            default -> "VARCHAR";
+        };
+    }
+
+    private static boolean copiedAsText(Column column) {
+        return localType(column).equals("VARCHAR") && !column.type().equals("character varying");
+    }
+
+    private static int copyRows(Connection source, Connection target, String table, List<Column> columns) throws SQLException {
+        int count = columns.size();
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        int rows = 0;
+        try (Statement select = source.createStatement();
+             PreparedStatement insert = target.prepareStatement(
+                     "INSERT INTO " + quote(table) + " VALUES (" + placeholders + ")")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery("SELECT * FROM " + quote(table))) {
+                while (rs.next()) {
+                    for (int i = 1; i <= count; i++) {
+                        insert.setObject(i, copiedAsText(columns.get(i - 1)) ? rs.getString(i) : rs.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
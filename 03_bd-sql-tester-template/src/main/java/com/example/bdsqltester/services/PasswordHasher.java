@@ -0,0 +1,82 @@
+package com.example.bdsqltester.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+public class PasswordHasher {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    public static final String PREFIX = "pbkdf2-sha256$";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int ITERATIONS = Integer.getInteger("bdsqltester.auth.pbkdf2Iterations", 210_000);
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom random = new SecureRandom();
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + ITERATIONS + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(password, salt, ITERATIONS));
+    }
+
+    public static boolean verify(String password, String stored) {
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[2]);
+            int iterations = Integer.parseInt(parts[0]);
+            return iterations > 0 && MessageDigest.isEqual(expected, derive(password, decoder.decode(parts[1]), iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            if (end >= 0) {
+                return Integer.parseInt(stored.substring(PREFIX.length(), end)) < ITERATIONS;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        log.warn("Malformed password hash, will rehash on next login");
+        return true;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
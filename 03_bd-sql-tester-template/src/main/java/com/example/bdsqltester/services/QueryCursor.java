@@ -0,0 +1,333 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.LocalDataSource;
+import com.example.bdsqltester.grading.ComparisonMode;
+import com.example.bdsqltester.metrics.Metrics;
+import com.example.bdsqltester.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cursor yang tidak dibaca selama bdsqltester.cursor.clientIdleMillis, atau yang paling lama tidak dipakai ketika
+ * jumlah cursor terbuka melewati bdsqltester.cursor.maxOpen, ditangguhkan: koneksinya dikembalikan ke pool.
+ * Cursor yang ditangguhkan menjalankan ulang query-nya pada fetch berikutnya dan melewati baris yang sudah dibaca.
+ * Itu hanya dilakukan untuk query dengan ORDER BY di tingkat teratas; tanpa ORDER BY urutan baris pada eksekusi
+ * ulang bisa berbeda, jadi fetch berikutnya gagal dan pengguna diminta menjalankan ulang query-nya.
+ */
+public class QueryCursor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(QueryCursor.class);
+
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("bdsqltester.cursor.idleTimeoutMillis", 120_000L);
+    private static final long CLIENT_IDLE_MILLIS = Long.getLong("bdsqltester.cursor.clientIdleMillis", 30_000L);
+    private static final int MAX_OPEN = Integer.getInteger("bdsqltester.cursor.maxOpen", 2);
+
+    private static final Timer executeTime = Metrics.timer("query_execute_seconds", "Time until the first result of a query is available");
+    private static final Timer fetchTime = Metrics.timer("query_fetch_seconds", "Time to read one page from a query cursor");
+
+    private static final Set<QueryCursor> openCursors = new LinkedHashSet<>();
+    private static final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("query-cursor-reaper").factory());
+
+    static {
+        Metrics.gauge("query_cursors_open", "Query cursors currently holding a pool connection", QueryCursor::openCount);
+        long period = Math.max(1000L, CLIENT_IDLE_MILLIS / 4);
+        reaper.scheduleWithFixedDelay(QueryCursor::suspendIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private final String sql;
+    private final int fetchSize;
+    private final ExecutionGuard guard;
+    private final QueryPlan plan;
+    private final ResultBuffer columns;
+    private final long acquireWaitNanos;
+    private final long openNanos;
+    private final boolean local;
+    private final boolean resumable;
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+    private long lastUsedNanos;
+    private long rowCount;
+    private boolean exhausted;
+    private boolean closed;
+    private boolean suspended;
+    private LimitExceededException limitHit;
+
+    private QueryCursor(String sql, int fetchSize, Connection connection, Statement statement,
+                        ResultSet resultSet, ExecutionGuard guard, QueryPlan plan, long acquireWaitNanos,
+                        long openNanos, boolean local) throws SQLException {
+        this.sql = sql;
+        this.fetchSize = fetchSize;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.guard = guard;
+        this.plan = plan;
+        this.acquireWaitNanos = acquireWaitNanos;
+        this.openNanos = openNanos;
+        this.local = local;
+        this.resumable = ComparisonMode.forAnswerKey(sql) == ComparisonMode.ORDERED;
+        this.lastUsedNanos = System.nanoTime();
+
+        this.columns = new ResultBuffer(resultSet.getMetaData(), 0);
+    }
+
+    public static QueryCursor open(String sql, ExecutionLimits limits, QueryHandle handle, int fetchSize) throws SQLException {
+        return open(sql, limits, handle, fetchSize, false);
+    }
+
+    public static QueryCursor openLocal(String sql, ExecutionLimits limits, QueryHandle handle, int fetchSize) throws SQLException {
+        return open(sql, limits, handle, fetchSize, true);
+    }
+
+    private static QueryCursor open(String sql, ExecutionLimits limits, QueryHandle handle, int fetchSize,
+                                    boolean local) throws SQLException {
+        ExecutionGuard guard = new ExecutionGuard(limits, handle);
+        long start = System.nanoTime();
+        Connection connection = local ? LocalDataSource.getConnection() : QueryExecutionService.getConnection();
+        long acquired = System.nanoTime();
+        Statement statement = null;
+        try {
+            QueryPlan plan = begin(connection, guard, sql, local, true);
+            statement = createStatement(connection, guard, fetchSize);
+            ResultSet resultSet = statement.executeQuery(sql);
+            long openNanos = System.nanoTime() - acquired;
+            executeTime.record(openNanos);
+            QueryCursor cursor = new QueryCursor(sql, fetchSize, connection, statement, resultSet, guard, plan,
+                    acquired - start, openNanos, local);
+            register(cursor);
+            return cursor;
+        } catch (SQLException e) {
+            abandon(connection, statement);
+            LimitExceededException limit = guard.translate(e);
+            throw limit == null ? e : limit;
+        }
+    }
+
+    private static QueryPlan begin(Connection connection, ExecutionGuard guard, String sql, boolean local,
+                                   boolean checkPlan) throws SQLException {
+        connection.setAutoCommit(false);
+        if (local) {
+            return null;
+        }
+        guard.prepare(connection);
+        try (Statement setup = connection.createStatement()) {
+            setup.execute("SET LOCAL idle_in_transaction_session_timeout = " + IDLE_TIMEOUT_MILLIS);
+        }
+        return checkPlan ? guard.checkPlan(connection, sql) : null;
+    }
+
+    private static Statement createStatement(Connection connection, ExecutionGuard guard, int fetchSize) throws SQLException {
+        Statement statement = connection.createStatement();
+        guard.apply(statement);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    private static void abandon(Connection connection, Statement statement) throws SQLException {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            connection.rollback();
+        } finally {
+            connection.close();
+        }
+    }
+
+    public QueryPlan getPlan() {
+        return plan;
+    }
+
+    public boolean isLocal() {
+        return local;
+    }
+
+    public List<String> getColumnNames() {
+        return columns.getColumnNames();
+    }
+
+    public synchronized ResultBuffer fetch(int maxRows) throws SQLException {
+        ResultBuffer page = columns.emptyCopy(exhausted ? 0 : Math.min(maxRows, 1024));
+        if (exhausted) {
+            return page;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (suspended) {
+                resume();
+            }
+            if (page.fill(resultSet, maxRows, guard) < maxRows) {
+                exhausted = true;
+            }
+        } catch (SQLException e) {
+            limitHit = guard.translate(e);
+            exhausted = true;
+            close();
+            if (limitHit == null) {
+                throw e;
+            }
+        }
+
+        rowCount += page.size();
+        lastUsedNanos = System.nanoTime();
+        fetchTime.record(lastUsedNanos - start);
+        if (exhausted) {
+            close();
+        } else {
+            touch(this);
+        }
+        return page;
+    }
+
+    private void resume() throws SQLException {
+        if (!resumable) {
+            throw new SQLException("Hasil query ditutup karena lama tidak dibaca. Query tanpa ORDER BY tidak dapat "
+                    + "dilanjutkan dengan urutan yang sama; jalankan ulang query untuk melihat baris berikutnya.");
+        }
+        Connection reopened = local ? LocalDataSource.getConnection() : QueryExecutionService.getConnection();
+        Statement reopenedStatement = null;
+        try {
+            begin(reopened, guard, sql, local, false);
+            reopenedStatement = createStatement(reopened, guard, fetchSize);
+            ResultSet reopenedResult = reopenedStatement.executeQuery(sql);
+            long skipped = 0;
+            while (skipped < rowCount && reopenedResult.next()) {
+                skipped++;
+            }
+            connection = reopened;
+            statement = reopenedStatement;
+            resultSet = reopenedResult;
+        } catch (SQLException e) {
+            abandon(reopened, reopenedStatement);
+            throw e;
+        }
+        suspended = false;
+        closed = false;
+        register(this);
+        log.debug("Resumed query cursor after {} rows", rowCount);
+    }
+
+    public synchronized boolean isExhausted() {
+        return exhausted;
+    }
+
+    public synchronized LimitExceededException getLimitHit() {
+        return limitHit;
+    }
+
+    public synchronized long getRowCount() {
+        return rowCount;
+    }
+
+    public long getAcquireWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(acquireWaitNanos);
+    }
+
+    public long getOpenMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(openNanos);
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        exhausted = true;
+        suspended = false;
+        release();
+    }
+
+    private synchronized void suspend() {
+        if (closed || exhausted) {
+            return;
+        }
+        try {
+            release();
+            suspended = true;
+        } catch (SQLException e) {
+            log.debug("Suspending query cursor failed: {}", e.getMessage());
+            exhausted = true;
+        }
+    }
+
+    private synchronized void suspendIfIdleSince(long deadlineNanos) {
+        if (lastUsedNanos - deadlineNanos < 0) {
+            suspend();
+        }
+    }
+
+    private void release() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        unregister(this);
+        try {
+            resultSet.close();
+            statement.close();
+            connection.rollback();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static void register(QueryCursor cursor) {
+        List<QueryCursor> evicted = new ArrayList<>();
+        synchronized (openCursors) {
+            openCursors.add(cursor);
+            Iterator<QueryCursor> it = openCursors.iterator();
+            while (openCursors.size() - evicted.size() > MAX_OPEN && it.hasNext()) {
+                QueryCursor eldest = it.next();
+                if (eldest != cursor) {
+                    evicted.add(eldest);
+                }
+            }
+        }
+        for (QueryCursor eldest : evicted) {
+            reaper.execute(eldest::suspend);
+        }
+    }
+
+    private static void touch(QueryCursor cursor) {
+        synchronized (openCursors) {
+            if (openCursors.remove(cursor)) {
+                openCursors.add(cursor);
+            }
+        }
+    }
+
+    private static void unregister(QueryCursor cursor) {
+        synchronized (openCursors) {
+            openCursors.remove(cursor);
+        }
+    }
+
+    private static long openCount() {
+        synchronized (openCursors) {
+            return openCursors.size();
+        }
+    }
+
+    private static void suspendIdle() {
+        List<QueryCursor> candidates;
+        synchronized (openCursors) {
+            candidates = new ArrayList<>(openCursors);
+        }
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(CLIENT_IDLE_MILLIS);
+        for (QueryCursor cursor : candidates) {
+            cursor.suspendIfIdleSince(deadline);
+        }
+    }
+}
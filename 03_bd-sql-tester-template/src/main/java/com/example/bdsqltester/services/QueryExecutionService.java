@@ -0,0 +1,63 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.datasources.GradingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class QueryExecutionService {
+    private static final Logger log = LoggerFactory.getLogger(QueryExecutionService.class);
+
+    private static final AtomicLong acquireCount = new AtomicLong();
+    private static final AtomicLong totalAcquireNanos = new AtomicLong();
+    private static final AtomicLong maxAcquireNanos = new AtomicLong();
+
+    private QueryExecutionService() {
+    }
+
+    public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = GradingDataSource.getConnection();
+        recordAcquire(System.nanoTime() - start);
+        return connection;
+    }
+
+    public static void warmUp() {
+        if (!Boolean.parseBoolean(System.getProperty("bdsqltester.grading.pool.warmUp", "true"))) {
+            return;
+        }
+        Thread.ofVirtual().name("grading-pool-warmup").start(() -> {
+            try {
+                GradingDataSource.warmUp();
+            } catch (Exception e) {
+                log.warn("Grading pool warm-up failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private static void recordAcquire(long nanos) {
+        acquireCount.incrementAndGet();
+        totalAcquireNanos.addAndGet(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos > TimeUnit.MILLISECONDS.toNanos(100)) {
+            log.debug("Waited {} ms for a grading connection", TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    public static long getAcquireCount() {
+        return acquireCount.get();
+    }
+
+    public static double getAverageAcquireWaitMillis() {
+        long count = acquireCount.get();
+        return count == 0 ? 0 : totalAcquireNanos.get() / (count * 1_000_000.0);
+    }
+
+    public static long getMaxAcquireWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxAcquireNanos.get());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bdsqltester.services;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class QueryHandle {
+    private volatile Statement statement;
+    private volatile boolean cancelled;
+
+    void register(Statement statement) throws LimitExceededException {
+        this.statement = statement;
+        if (cancelled) {
+            throw new LimitExceededException(ExecutionLimits.Limit.CANCELLED, "Query dihentikan: " + ExecutionLimits.Limit.CANCELLED.getDescription() + ".");
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        Statement current = statement;
+        if (current != null) {
+            try {
+                current.cancel();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
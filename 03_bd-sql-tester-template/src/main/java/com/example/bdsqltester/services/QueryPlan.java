@@ -0,0 +1,136 @@
+package com.example.bdsqltester.services;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class QueryPlan {
+    private static final int MAX_SUMMARY_NODES = 8;
+
+    private final double totalCost;
+    private final long planRows;
+    private final List<String> nodes;
+    private final List<String> warnings;
+
+    private QueryPlan(double totalCost, long planRows, List<String> nodes, List<String> warnings) {
+        this.totalCost = totalCost;
+        this.planRows = planRows;
+        this.nodes = nodes;
+        this.warnings = warnings;
+    }
+
+    public static QueryPlan explain(Connection connection, String sql) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        String json;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            rs.next();
+            json = rs.getString(1);
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            if (ExecutionGuard.isCancellation(e)) {
+                throw e;
+            }
+            return null;
+        }
+        connection.releaseSavepoint(savepoint);
+        return parse(json);
+    }
+
+    @SuppressWarnings("unchecked")
+    static QueryPlan parse(String json) {
+        List<Object> root = (List<Object>) Json.parse(json);
+        Map<String, Object> plan = (Map<String, Object>) ((Map<String, Object>) root.get(0)).get("Plan");
+        List<String> nodes = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        walk(plan, nodes, warnings);
+        return new QueryPlan(number(plan, "Total Cost"), (long) number(plan, "Plan Rows"), nodes, warnings);
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public long getPlanRows() {
+        return planRows;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    void addWarning(String warning) {
+        warnings.add(warning);
+    }
+
+    public String summary() {
+        StringBuilder text = new StringBuilder("Rencana query: ");
+        text.append(String.join(", ", nodes.subList(0, Math.min(nodes.size(), MAX_SUMMARY_NODES))));
+        if (nodes.size() > MAX_SUMMARY_NODES) {
+            text.append(", ...");
+        }
+        text.append(String.format(" (perkiraan biaya %.1f, perkiraan %d baris)", totalCost, planRows));
+        for (String warning : warnings) {
+            text.append("\nPeringatan: ").append(warning);
+        }
+        return text.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void walk(Map<String, Object> node, List<String> nodes, List<String> warnings) {
+        String type = (String) node.get("Node Type");
+        Object relation = node.get("Relation Name");
+        nodes.add(relation == null ? type : type + " on " + relation);
+
+        List<Map<String, Object>> children = (List<Map<String, Object>>) node.getOrDefault("Plans", List.of());
+        if ("Nested Loop".equals(type) && !node.containsKey("Join Filter") && children.size() == 2
+                && !isFiltered(children.get(1))) {
+            warnings.add("kemungkinan cross join tanpa kondisi antara "
+                    + relations(children.get(0)) + " dan " + relations(children.get(1)) + ".");
+        }
+        for (Map<String, Object> child : children) {
+            walk(child, nodes, warnings);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isFiltered(Map<String, Object> node) {
+        if (node.containsKey("Filter") || node.containsKey("Index Cond") || node.containsKey("Recheck Cond")
+                || node.containsKey("Hash Cond") || node.containsKey("Merge Cond") || node.containsKey("Join Filter")) {
+            return true;
+        }
+        List<Map<String, Object>> children = (List<Map<String, Object>>) node.getOrDefault("Plans", List.of());
+        return children.size() == 1 && isFiltered(children.get(0));
+    }
+
+    private static String relations(Map<String, Object> node) {
+        List<String> names = new ArrayList<>();
+        collectRelations(node, names);
+        return names.isEmpty() ? "(subquery)" : String.join(" x ", names);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectRelations(Map<String, Object> node, List<String> names) {
+        Object relation = node.get("Relation Name");
+        if (relation != null) {
+            names.add((String) relation);
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) node.getOrDefault("Plans", List.of())) {
+            collectRelations(child, names);
+        }
+    }
+
+    private static double number(Map<String, Object> node, String key) {
+        Object value = node.get(key);
+        return value instanceof Number n ? n.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,636 @@
+package com.example.bdsqltester.services;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class ResultBuffer {
+    public enum Kind {
+        INTEGER("angka"), DECIMAL("angka"), FLOAT("angka"), BOOLEAN("boolean"),
+        DATE("tanggal/waktu"), TIMESTAMP("tanggal/waktu"), TEXT("teks");
+
+        private final String family;
+
+        Kind(String family) {
+            this.family = family;
+        }
+
+        public String getFamily() {
+            return family;
+        }
+
+        public boolean isComparableWith(Kind other) {
+            return family.equals(other.family);
+        }
+    }
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+    private static final byte TEXT_SCALE = Byte.MIN_VALUE;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final String[] names;
+    private final Column[] columns;
+    private int size;
+    private int capacity;
+
+    public ResultBuffer(ResultSetMetaData metaData, int capacity) throws SQLException {
+        int count = metaData.getColumnCount();
+        this.names = new String[count];
+        this.columns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+            int type = metaData.getColumnType(i + 1);
+            columns[i] = new Column(kindOf(type, metaData.getColumnTypeName(i + 1)), type == Types.REAL);
+        }
+        ensureCapacity(capacity);
+    }
+
+    public ResultBuffer(String[] names, Kind[] kinds, int capacity) {
+        this.names = names.clone();
+        this.columns = new Column[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            columns[i] = new Column(kinds[i], false);
+        }
+        ensureCapacity(capacity);
+    }
+
+    private ResultBuffer(ResultBuffer template, int capacity) {
+        this.names = template.names;
+        this.columns = new Column[template.columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(template.columns[i].kind, template.columns[i].single);
+        }
+        ensureCapacity(capacity);
+    }
+
+    static Kind kindOf(int type, String typeName) {
+        String name = typeName == null ? "" : typeName.toLowerCase(Locale.ROOT);
+        return switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> Kind.INTEGER;
+            case Types.NUMERIC, Types.DECIMAL -> Kind.DECIMAL;
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> name.equals("money") ? Kind.TEXT : Kind.FLOAT;
+            case Types.BOOLEAN -> Kind.BOOLEAN;
+            case Types.BIT -> name.equals("bool") || name.equals("boolean") ? Kind.BOOLEAN : Kind.TEXT;
+            case Types.DATE -> Kind.DATE;
+            case Types.TIMESTAMP -> name.equals("timestamptz") ? Kind.TEXT : Kind.TIMESTAMP;
+            default -> Kind.TEXT;
+        };
+    }
+
+    public ResultBuffer emptyCopy(int capacity) {
+        return new ResultBuffer(this, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    public List<String> getColumnNames() {
+        return List.of(names);
+    }
+
+    public Kind getKind(int column) {
+        return columns[column].kind;
+    }
+
+    public void clear() {
+        size = 0;
+        for (Column column : columns) {
+            column.clearDictionary();
+        }
+    }
+
+    public int fill(ResultSet rs, int maxRows, ExecutionGuard guard) throws SQLException {
+        int added = 0;
+        while (added < maxRows && rs.next()) {
+            long bytes = appendRow(rs);
+            if (guard != null) {
+                try {
+                    guard.onRow(bytes);
+                } catch (LimitExceededException e) {
+                    size--;
+                    throw e;
+                }
+            }
+            added++;
+        }
+        return added;
+    }
+
+    public long appendRow(ResultSet rs) throws SQLException {
+        ensureCapacity(size + 1);
+        int row = size;
+        long bytes = 0;
+        for (int i = 0; i < columns.length; i++) {
+            bytes += columns[i].read(row, rs, i + 1);
+        }
+        size++;
+        return bytes;
+    }
+
+    public void appendRow(String... cells) {
+        if (cells.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " cells, got " + cells.length);
+        }
+        ensureCapacity(size + 1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].parse(size, cells[i]);
+        }
+        size++;
+    }
+
+    public void appendRow(ResultBuffer source, int sourceRow) {
+        ensureCapacity(size + 1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].copy(size, source.columns[i], sourceRow);
+        }
+        size++;
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].isNull(row);
+    }
+
+    public String getString(int row, int column) {
+        Column c = columns[column];
+        return c.isNull(row) ? null : c.format(row);
+    }
+
+    public boolean rowEquals(int row, ResultBuffer other, int otherRow) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!cellEquals(columns[i], row, other.columns[i], otherRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int rowHash(int row) {
+        long hash = 1;
+        for (Column column : columns) {
+            hash = hash * 31 + (column.isNull(row) ? 0 : column.hash(row));
+        }
+        return Long.hashCode(hash);
+    }
+
+    public long cellHash(int row, int column) {
+        return columns[column].hash(row);
+    }
+
+    private static boolean cellEquals(Column a, int rowA, Column b, int rowB) {
+        boolean nullA = a.isNull(rowA);
+        boolean nullB = b.isNull(rowB);
+        if (nullA || nullB) {
+            return nullA == nullB;
+        }
+        if (!a.kind.isComparableWith(b.kind)) {
+            return false;
+        }
+        return switch (a.kind) {
+            case INTEGER, DECIMAL, FLOAT -> numberEquals(a, rowA, b, rowB);
+            case DATE, TIMESTAMP -> a.micros(rowA) == b.micros(rowB);
+            case BOOLEAN -> a.longs[rowA] == b.longs[rowB];
+            case TEXT -> a == b ? a.codes[rowA] == b.codes[rowB] : a.text(rowA).equals(b.text(rowB));
+        };
+    }
+
+    private static boolean numberEquals(Column a, int rowA, Column b, int rowB) {
+        if (a.kind == Kind.FLOAT || b.kind == Kind.FLOAT) {
+            double x = a.toDouble(rowA);
+            double y = b.toDouble(rowB);
+            return x == y || Double.isNaN(x) && Double.isNaN(y);
+        }
+        if (a.isTextDecimal(rowA) || b.isTextDecimal(rowB)) {
+            BigDecimal x = a.toBigDecimal(rowA);
+            BigDecimal y = b.toBigDecimal(rowB);
+            return x == null || y == null ? a.format(rowA).equals(b.format(rowB)) : x.compareTo(y) == 0;
+        }
+        long unscaledA = a.longs[rowA];
+        int scaleA = a.scale(rowA);
+        long unscaledB = b.longs[rowB];
+        int scaleB = b.scale(rowB);
+        while (scaleA > 0 && unscaledA % 10 == 0) {
+            unscaledA /= 10;
+            scaleA--;
+        }
+        while (scaleB > 0 && unscaledB % 10 == 0) {
+            unscaledB /= 10;
+            scaleB--;
+        }
+        return unscaledA == unscaledB && scaleA == scaleB;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity && capacity > 0) {
+            return;
+        }
+        int newCapacity = Math.max(needed, Math.max(16, capacity * 2));
+        for (Column column : columns) {
+            column.grow(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    static String formatDouble(double value, boolean single) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+        int maxExponent = single ? 6 : 15;
+        if (value == 0) {
+            return 1 / value < 0 ? "-0" : "0";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < POWERS_OF_TEN[maxExponent]) {
+            return Long.toString((long) value);
+        }
+        BigDecimal decimal = new BigDecimal(Double.toString(value)).stripTrailingZeros();
+        int exponent = decimal.precision() - decimal.scale() - 1;
+        if (exponent >= -4 && exponent < maxExponent) {
+            return decimal.toPlainString();
+        }
+        String digits = decimal.unscaledValue().abs().toString();
+        StringBuilder text = new StringBuilder();
+        if (value < 0) {
+            text.append('-');
+        }
+        text.append(digits.charAt(0));
+        if (digits.length() > 1) {
+            text.append('.').append(digits, 1, digits.length());
+        }
+        text.append(exponent < 0 ? "e-" : "e+");
+        if (Math.abs(exponent) < 10) {
+            text.append('0');
+        }
+        return text.append(Math.abs(exponent)).toString();
+    }
+
+    private static void appendDate(StringBuilder text, LocalDate date) {
+        int year = date.getYear();
+        text.append(String.format("%04d-%02d-%02d", year > 0 ? year : 1 - year, date.getMonthValue(), date.getDayOfMonth()));
+    }
+
+    private static long epochMicros(LocalDateTime value) {
+        if (value.equals(LocalDateTime.MAX)) {
+            return Long.MAX_VALUE;
+        }
+        if (value.equals(LocalDateTime.MIN)) {
+            return Long.MIN_VALUE;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + value.getNano() / 1000;
+    }
+
+    private static long epochDay(LocalDate value) {
+        if (value.equals(LocalDate.MAX)) {
+            return Long.MAX_VALUE;
+        }
+        if (value.equals(LocalDate.MIN)) {
+            return Long.MIN_VALUE;
+        }
+        return value.toEpochDay();
+    }
+
+    private static final class Column {
+        final Kind kind;
+        final boolean single;
+        long[] longs;
+        byte[] scales;
+        double[] doubles;
+        int[] codes;
+        long[] nulls = new long[0];
+        Map<String, Integer> dictionary;
+        String[] values;
+        long[] valueHashes;
+        int valueCount;
+
+        Column(Kind kind, boolean single) {
+            this.kind = kind;
+            this.single = single;
+            if (kind == Kind.TEXT || kind == Kind.DECIMAL) {
+                dictionary = new HashMap<>();
+                values = new String[16];
+                valueHashes = new long[16];
+            }
+        }
+
+        void grow(int capacity) {
+            switch (kind) {
+                case FLOAT -> doubles = doubles == null ? new double[capacity] : Arrays.copyOf(doubles, capacity);
+                case TEXT -> codes = codes == null ? new int[capacity] : Arrays.copyOf(codes, capacity);
+                default -> longs = longs == null ? new long[capacity] : Arrays.copyOf(longs, capacity);
+            }
+            if (kind == Kind.DECIMAL) {
+                scales = scales == null ? new byte[capacity] : Arrays.copyOf(scales, capacity);
+            }
+            nulls = Arrays.copyOf(nulls, (capacity + 63) >>> 6);
+        }
+
+        void clearDictionary() {
+            if (dictionary != null && valueCount > 0) {
+                dictionary.clear();
+                Arrays.fill(values, 0, valueCount, null);
+                valueCount = 0;
+            }
+        }
+
+        boolean isNull(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        void setNull(int row, boolean isNull) {
+            if (isNull) {
+                nulls[row >>> 6] |= 1L << row;
+            } else {
+                nulls[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        long read(int row, ResultSet rs, int index) throws SQLException {
+            switch (kind) {
+                case INTEGER -> {
+                    longs[row] = rs.getLong(index);
+                    setNull(row, rs.wasNull());
+                }
+                case FLOAT -> {
+                    doubles[row] = single ? Double.parseDouble(Float.toString(rs.getFloat(index))) : rs.getDouble(index);
+                    setNull(row, rs.wasNull());
+                }
+                case BOOLEAN -> {
+                    longs[row] = rs.getBoolean(index) ? 1 : 0;
+                    setNull(row, rs.wasNull());
+                }
+                case DATE -> {
+                    LocalDate value = rs.getObject(index, LocalDate.class);
+                    setNull(row, value == null);
+                    if (value != null) {
+                        longs[row] = epochDay(value);
+                    }
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime value = rs.getObject(index, LocalDateTime.class);
+                    setNull(row, value == null);
+                    if (value != null) {
+                        longs[row] = epochMicros(value);
+                    }
+                }
+                case DECIMAL, TEXT -> {
+                    String value = rs.getString(index);
+                    setNull(row, value == null);
+                    if (value != null) {
+                        store(row, value);
+                        return value.length();
+                    }
+                    return 0;
+                }
+            }
+            return isNull(row) ? 0 : Long.BYTES;
+        }
+
+        void parse(int row, String value) {
+            setNull(row, value == null);
+            if (value == null) {
+                return;
+            }
+            switch (kind) {
+                case INTEGER -> longs[row] = Long.parseLong(value);
+                case FLOAT -> doubles[row] = Double.parseDouble(value);
+                case BOOLEAN -> longs[row] = value.equals("t") || value.equalsIgnoreCase("true") ? 1 : 0;
+                case DATE -> longs[row] = epochDay(LocalDate.parse(value));
+                case TIMESTAMP -> longs[row] = epochMicros(LocalDateTime.parse(value.replace(' ', 'T')));
+                case DECIMAL, TEXT -> store(row, value);
+            }
+        }
+
+        void copy(int row, Column source, int sourceRow) {
+            boolean isNull = source.isNull(sourceRow);
+            setNull(row, isNull);
+            if (isNull) {
+                return;
+            }
+            switch (kind) {
+                case FLOAT -> doubles[row] = source.doubles[sourceRow];
+                case TEXT -> codes[row] = code(source.values[source.codes[sourceRow]]);
+                case DECIMAL -> {
+                    scales[row] = source.scales[sourceRow];
+                    longs[row] = source.isTextDecimal(sourceRow)
+                            ? code(source.values[(int) source.longs[sourceRow]])
+                            : source.longs[sourceRow];
+                }
+                default -> longs[row] = source.longs[sourceRow];
+            }
+        }
+
+        private void store(int row, String value) {
+            if (kind == Kind.TEXT) {
+                codes[row] = code(value);
+            } else if (!storeDecimal(row, value)) {
+                scales[row] = TEXT_SCALE;
+                longs[row] = code(value);
+            }
+        }
+
+        private boolean storeDecimal(int row, String value) {
+            int i = 0;
+            boolean negative = false;
+            if (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+                negative = value.charAt(0) == '-';
+                i++;
+            }
+            long unscaled = 0;
+            int scale = -1;
+            int digits = 0;
+            for (; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if (ch == '.' && scale < 0) {
+                    scale = 0;
+                    continue;
+                }
+                if (ch < '0' || ch > '9' || unscaled > (Long.MAX_VALUE - 9) / 10) {
+                    return storeBigDecimal(row, value);
+                }
+                unscaled = unscaled * 10 + (ch - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            }
+            if (digits == 0 || scale > Byte.MAX_VALUE) {
+                return storeBigDecimal(row, value);
+            }
+            longs[row] = negative ? -unscaled : unscaled;
+            scales[row] = (byte) Math.max(scale, 0);
+            return true;
+        }
+
+        private boolean storeBigDecimal(int row, String value) {
+            try {
+                BigDecimal decimal = new BigDecimal(value);
+                if (decimal.scale() < 0 || decimal.scale() > Byte.MAX_VALUE || decimal.unscaledValue().bitLength() > 63) {
+                    return false;
+                }
+                longs[row] = decimal.unscaledValue().longValue();
+                scales[row] = (byte) decimal.scale();
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private int code(String value) {
+            Integer existing = dictionary.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, valueCount * 2);
+                valueHashes = Arrays.copyOf(valueHashes, valueCount * 2);
+            }
+            values[valueCount] = value;
+            valueHashes[valueCount] = textHash(value);
+            dictionary.put(value, valueCount);
+            return valueCount++;
+        }
+
+        private static long textHash(String value) {
+            long hash = (0xCBF29CE484222325L ^ value.length()) * 0x100000001B3L;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        boolean isTextDecimal(int row) {
+            return kind == Kind.DECIMAL && scales[row] == TEXT_SCALE;
+        }
+
+        int scale(int row) {
+            return kind == Kind.DECIMAL ? scales[row] : 0;
+        }
+
+        String text(int row) {
+            return values[kind == Kind.TEXT ? codes[row] : (int) longs[row]];
+        }
+
+        BigDecimal toBigDecimal(int row) {
+            if (!isTextDecimal(row)) {
+                return BigDecimal.valueOf(longs[row], scale(row));
+            }
+            try {
+                return new BigDecimal(text(row));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        double toDouble(int row) {
+            if (kind == Kind.FLOAT) {
+                return doubles[row];
+            }
+            if (isTextDecimal(row)) {
+                BigDecimal decimal = toBigDecimal(row);
+                return decimal != null ? decimal.doubleValue() : Double.parseDouble(text(row));
+            }
+            long unscaled = longs[row];
+            int scale = scale(row);
+            if (scale == 0) {
+                return unscaled;
+            }
+            if (scale < POWERS_OF_TEN.length && Math.abs(unscaled) < 1L << 53) {
+                return unscaled / POWERS_OF_TEN[scale];
+            }
+            return BigDecimal.valueOf(unscaled, scale).doubleValue();
+        }
+
+        long micros(int row) {
+            long value = longs[row];
+            if (kind == Kind.TIMESTAMP || value == Long.MAX_VALUE || value == Long.MIN_VALUE) {
+                return value;
+            }
+            return value * MICROS_PER_DAY;
+        }
+
+        long hash(int row) {
+            return switch (kind) {
+                case INTEGER, DECIMAL, FLOAT -> {
+                    double value = toDouble(row);
+                    yield Double.doubleToLongBits(value == 0 ? 0.0 : value);
+                }
+                case DATE, TIMESTAMP -> micros(row);
+                case BOOLEAN -> longs[row];
+                case TEXT -> valueHashes[codes[row]];
+            };
+        }
+
+        String format(int row) {
+            return switch (kind) {
+                case INTEGER -> Long.toString(longs[row]);
+                case DECIMAL -> isTextDecimal(row) ? text(row) : BigDecimal.valueOf(longs[row], scales[row]).toPlainString();
+                case FLOAT -> formatDouble(doubles[row], single);
+                case BOOLEAN -> longs[row] != 0 ? "t" : "f";
+                case DATE -> formatTemporal(longs[row], false);
+                case TIMESTAMP -> formatTemporal(longs[row], true);
+                case TEXT -> values[codes[row]];
+            };
+        }
+
+        private static String formatTemporal(long value, boolean timestamp) {
+            if (value == Long.MAX_VALUE) {
+                return "infinity";
+            }
+            if (value == Long.MIN_VALUE) {
+                return "-infinity";
+            }
+            StringBuilder text = new StringBuilder(26);
+            LocalDate date;
+            if (timestamp) {
+                LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(value, MICROS_PER_SECOND), 0, ZoneOffset.UTC);
+                date = time.toLocalDate();
+                appendDate(text, date);
+                text.append(String.format(" %02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond()));
+                long fraction = Math.floorMod(value, MICROS_PER_SECOND);
+                if (fraction != 0) {
+                    String digits = String.format("%06d", fraction);
+                    int end = digits.length();
+                    while (digits.charAt(end - 1) == '0') {
+                        end--;
+                    }
+                    text.append('.').append(digits, 0, end);
+                }
+            } else {
+                date = LocalDate.ofEpochDay(value);
+                appendDate(text, date);
+            }
+            if (date.getYear() <= 0) {
+                text.append(" BC");
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.dtos.Assignment;
+import com.example.bdsqltester.grading.GradingEngine;
+import com.example.bdsqltester.grading.GradingResult;
+import com.example.bdsqltester.grading.GradingScheduler;
+
+import java.util.concurrent.CompletableFuture;
+
+public class SubmissionService {
+
+    public record Submission(GradingResult result, double bestGrade) {
+    }
+
+    private SubmissionService() {
+    }
+
+    public static CompletableFuture<Submission> submit(long assignmentId, long userId, String answer, QueryHandle handle) {
+        return GradingScheduler.submit(() -> {
+            Assignment assignment = AssignmentCatalog.details(assignmentId);
+            GradingResult result = GradingEngine.grade(assignmentId, assignment.getAnswerKey(), answer, handle);
+            double bestGrade = GradeStore.saveSubmission(assignmentId, userId, answer, result.getGrade());
+            return new Submission(result, bestGrade);
+        });
+    }
+}
@@ -4,11 +4,22 @@ module com.example.bdsqltester {
     requires com.zaxxer.hikari;
     requires java.sql;
     requires org.slf4j;
+    requires org.postgresql.jdbc;
+    requires java.management;
+    requires jdk.httpserver;
+    requires java.net.http;
 
 
     opens com.example.bdsqltester to javafx.fxml;
     exports com.example.bdsqltester;
     exports com.example.bdsqltester.datasources;
+    exports com.example.bdsqltester.grading;
+    exports com.example.bdsqltester.services;
+    exports com.example.bdsqltester.dtos;
+    exports com.example.bdsqltester.repositories;
+    exports com.example.bdsqltester.metrics;
+    exports com.example.bdsqltester.server;
+    exports com.example.bdsqltester.client;
     opens com.example.bdsqltester.datasources to javafx.fxml;
     exports com.example.bdsqltester.scenes;
     opens com.example.bdsqltester.scenes to javafx.fxml;
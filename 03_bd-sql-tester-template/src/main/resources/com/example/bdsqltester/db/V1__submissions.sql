@@ -0,0 +1,11 @@
+-- Menyimpan setiap jawaban yang dikirim agar bisa dinilai ulang ketika kunci jawaban diperbaiki
+CREATE TABLE IF NOT EXISTS submissions (
+    id BIGSERIAL PRIMARY KEY,
+    assignment_id BIGINT NOT NULL REFERENCES assignments (id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    answer TEXT NOT NULL,
+    grade DOUBLE PRECISION NOT NULL,
+    submitted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS submissions_assignment_user_idx ON submissions (assignment_id, user_id);
@@ -0,0 +1,13 @@
+-- Sisakan satu baris per (assignment_id, user_id), yaitu yang nilainya tertinggi, sebelum constraint ditambahkan
+DELETE FROM grades g
+    USING grades d
+WHERE g.assignment_id = d.assignment_id
+  AND g.user_id = d.user_id
+  AND (g.grade < d.grade OR (g.grade = d.grade AND g.ctid < d.ctid));
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'grades_assignment_user_key') THEN
+        ALTER TABLE grades ADD CONSTRAINT grades_assignment_user_key UNIQUE (assignment_id, user_id);
+    END IF;
+END $$;
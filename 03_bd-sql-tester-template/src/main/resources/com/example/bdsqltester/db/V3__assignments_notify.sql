@@ -0,0 +1,17 @@
+-- Setiap perubahan pada assignments dikirim ke channel assignments_changed dengan payload "<operasi>:<id>",
+-- sehingga aplikasi yang terbuka cukup memuat ulang satu baris itu saja
+CREATE OR REPLACE FUNCTION notify_assignments_changed() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('assignments_changed', TG_OP || ':' || OLD.id);
+    ELSE
+        PERFORM pg_notify('assignments_changed', TG_OP || ':' || NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS assignments_changed ON assignments;
+CREATE TRIGGER assignments_changed
+    AFTER INSERT OR UPDATE OR DELETE ON assignments
+    FOR EACH ROW EXECUTE FUNCTION notify_assignments_changed();
@@ -0,0 +1,2 @@
+-- Hash PBKDF2 (lihat PasswordHasher) lebih panjang dari password teks biasa
+ALTER TABLE users ALTER COLUMN password TYPE TEXT;
@@ -0,0 +1,18 @@
+-- Setiap perubahan pada grades dikirim ke channel grades_changed dengan payload id assignment-nya, sehingga
+-- laporan nilai yang tersimpan di aplikasi lain ikut dibuang. Payload yang sama dalam satu transaksi
+-- (misalnya regrade) hanya dikirim sekali oleh PostgreSQL.
+CREATE OR REPLACE FUNCTION notify_grades_changed() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('grades_changed', OLD.assignment_id::text);
+    ELSE
+        PERFORM pg_notify('grades_changed', NEW.assignment_id::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS grades_changed ON grades;
+CREATE TRIGGER grades_changed
+    AFTER INSERT OR UPDATE OR DELETE ON grades
+    FOR EACH ROW EXECUTE FUNCTION notify_grades_changed();
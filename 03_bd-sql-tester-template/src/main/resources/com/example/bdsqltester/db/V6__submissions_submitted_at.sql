@@ -0,0 +1,2 @@
+-- Laju submit di dashboard metrik dihitung dari jumlah jawaban dalam rentang waktu terakhir
+CREATE INDEX IF NOT EXISTS submissions_submitted_at_idx ON submissions (submitted_at);
@@ -0,0 +1,130 @@
+package com.example.bdsqltester.client;
+
+import com.example.bdsqltester.dtos.User;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.GradeReport;
+import com.example.bdsqltester.services.LimitExceededException;
+import com.example.bdsqltester.services.SubmissionService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradingClientTest {
+    private static HttpServer server;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/", GradingClientTest::handle);
+        server.start();
+        GradingClient.connect("http://127.0.0.1:" + server.getAddress().getPort(), false);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+        GradingClient.shutdown();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        boolean authorized = "Bearer t0k".equals(exchange.getRequestHeaders().getFirst("Authorization"));
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        switch (path) {
+            case "/api/login" -> {
+                if (body.contains("\"password\":\"salah\"")) {
+                    reply(exchange, 401, "{\"error\":\"Username atau password salah.\"}");
+                } else {
+                    reply(exchange, 200, "{\"token\":\"t0k\",\"userId\":7,\"username\":\"budi\",\"role\":\"user\","
+                            + "\"assignments\":[{\"id\":1,\"name\":\"Join\"},{\"id\":2,\"name\":\"Agregasi\"}]}");
+                }
+            }
+            case "/api/assignments/1/submissions" -> reply(exchange, authorized ? 200 : 401,
+                    "{\"grade\":100.0,\"bestGrade\":100.0,\"correct\":true,\"message\":\"Benar\"}");
+            case "/api/assignments/2/submissions" -> reply(exchange, 409,
+                    "{\"error\":\"Query dihentikan: batas waktu eksekusi terlampaui (10 detik).\",\"limit\":\"TIMEOUT\"}");
+            case "/api/assignments/3/submissions" -> reply(exchange, 503, "{\"error\":\"Antrian penilaian penuh.\"}");
+            case "/api/assignments/1/grade" -> reply(exchange, 200, "{\"grade\":null}");
+            case "/api/assignments/1/grades" -> reply(exchange, 200, "after=3".equals(query)
+                    ? "{\"rows\":[{\"userId\":4,\"username\":\"dina\",\"grade\":80.0}],\"exhausted\":true}"
+                    : "{\"rows\":[],\"exhausted\":false}");
+            case "/api/assignments/1/statistics" -> reply(exchange, 200, "{\"count\":2,\"mean\":75.0,\"min\":50.0,\"max\":100.0,"
+                    + "\"p25\":62.5,\"median\":75.0,\"p75\":87.5,\"p90\":95.0,\"histogram\":[0,0,0,0,0,1,0,0,0,1]}");
+            default -> reply(exchange, 500, "bukan json");
+        }
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void login() throws SQLException {
+        GradingClient.login("budi", "rahasia", "user");
+    }
+
+    @Test
+    void loginStoresTokenAndCatalog() throws SQLException {
+        assertEquals(Optional.empty(), GradingClient.login("budi", "salah", "user"));
+        User user = GradingClient.login("budi", "rahasia", "user").orElseThrow();
+        assertEquals(7, user.getId());
+        assertEquals("budi", user.getUsername());
+        assertEquals(List.of("Join", "Agregasi"), GradingClient.summaries().stream().map(Object::toString).toList());
+    }
+
+    @Test
+    void submissionResultsAndErrors() throws SQLException {
+        login();
+        SubmissionService.Submission submission = GradingClient.submit(1, "select 1").join();
+        assertEquals(100, submission.result().getGrade());
+        assertEquals("Benar", submission.result().getMessage());
+
+        CompletionException limit = assertThrows(CompletionException.class, () -> GradingClient.submit(2, "select 1").join());
+        assertEquals(ExecutionLimits.Limit.TIMEOUT, assertInstanceOf(LimitExceededException.class, limit.getCause()).getLimit());
+        CompletionException busy = assertThrows(CompletionException.class, () -> GradingClient.submit(3, "select 1").join());
+        assertInstanceOf(RejectedExecutionException.class, busy.getCause());
+    }
+
+    @Test
+    void readsGradesAndStatistics() throws SQLException {
+        login();
+        assertTrue(GradingClient.grade(1).isEmpty());
+
+        GradeReport.Page page = GradingClient.gradesAfter(1, 3);
+        assertTrue(page.exhausted());
+        assertEquals("dina", page.rows().get(0).getUsername());
+        assertEquals(80.0, page.rows().get(0).getGrade());
+
+        GradeReport.Statistics statistics = GradingClient.statistics(1);
+        assertEquals(2, statistics.getCount());
+        assertEquals(87.5, statistics.getP75());
+        assertEquals(1, statistics.getHistogram()[9]);
+    }
+
+    @Test
+    void nonJsonErrorsBecomeSqlExceptions() {
+        SQLException e = assertThrows(SQLException.class, () -> GradingClient.details(99));
+        assertEquals("Server penilaian membalas HTTP 500.", e.getMessage());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bdsqltester.grading;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComparisonModeTest {
+
+    @Test
+    void topLevelOrderByIsOrdered() {
+        assertEquals(ComparisonMode.ORDERED, ComparisonMode.forAnswerKey("SELECT * FROM t ORDER BY a"));
+        assertEquals(ComparisonMode.ORDERED, ComparisonMode.forAnswerKey("select *\nfrom t\norder\nby a desc;"));
+        assertEquals(ComparisonMode.ORDERED,
+                ComparisonMode.forAnswerKey("(SELECT a FROM t) UNION (SELECT a FROM u) ORDER BY 1"));
+    }
+
+    @Test
+    void orderByInsideParenthesesIsUnordered() {
+        assertEquals(ComparisonMode.UNORDERED,
+                ComparisonMode.forAnswerKey("SELECT * FROM (SELECT a FROM t ORDER BY a) s"));
+        assertEquals(ComparisonMode.UNORDERED,
+                ComparisonMode.forAnswerKey("SELECT a, row_number() OVER (ORDER BY a) FROM t"));
+        assertEquals(ComparisonMode.UNORDERED,
+                ComparisonMode.forAnswerKey("WITH s AS (SELECT a FROM t ORDER BY a) SELECT * FROM s"));
+    }
+
+    @Test
+    void orderByInLiteralsOrCommentsIsUnordered() {
+        assertEquals(ComparisonMode.UNORDERED, ComparisonMode.forAnswerKey("SELECT 'order by' FROM t"));
+        assertEquals(ComparisonMode.UNORDERED, ComparisonMode.forAnswerKey("SELECT a FROM t -- order by a"));
+        assertEquals(ComparisonMode.UNORDERED, ComparisonMode.forAnswerKey("SELECT \"order by\" FROM t"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ResultBuffer;
+import com.example.bdsqltester.services.ResultBuffer.Kind;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ResultFingerprintTest {
+
+    private static ResultFingerprint fingerprint(Kind[] kinds, String[]... rows) {
+        String[] names = new String[kinds.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "c" + i;
+        }
+        ResultBuffer buffer = new ResultBuffer(names, kinds, rows.length);
+        for (String[] row : rows) {
+            buffer.appendRow(row);
+        }
+        ResultFingerprint fingerprint = new ResultFingerprint(kinds.length);
+        for (int row = 0; row < buffer.size(); row++) {
+            fingerprint.addRow(buffer, row);
+        }
+        return fingerprint;
+    }
+
+    private static final Kind[] TEXT_INT = {Kind.TEXT, Kind.INTEGER};
+    private static final Kind[] TWO_TEXT = {Kind.TEXT, Kind.TEXT};
+
+    @Test
+    void independentOfRowOrder() {
+        assertEquals(
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"b", "2"}, new String[]{"a", "1"}),
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"a", "1"}, new String[]{"b", "2"}));
+    }
+
+    @Test
+    void countsDuplicateRows() {
+        assertNotEquals(
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"b", "2"}),
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"a", "1"}, new String[]{"b", "2"}));
+        assertNotEquals(
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"a", "1"}, new String[]{"b", "2"}),
+                fingerprint(TEXT_INT, new String[]{"a", "1"}, new String[]{"b", "2"}, new String[]{"b", "2"}));
+    }
+
+    @Test
+    void nullDiffersFromEmptyString() {
+        assertNotEquals(
+                fingerprint(TWO_TEXT, new String[]{null, "x"}),
+                fingerprint(TWO_TEXT, new String[]{"", "x"}));
+    }
+
+    @Test
+    void cellBoundariesMatter() {
+        assertNotEquals(
+                fingerprint(TWO_TEXT, new String[]{"ab", "c"}),
+                fingerprint(TWO_TEXT, new String[]{"a", "bc"}));
+        assertNotEquals(
+                fingerprint(TWO_TEXT, new String[]{null, "a"}),
+                fingerprint(TWO_TEXT, new String[]{"a", null}));
+    }
+
+    @Test
+    void equalNumbersOfDifferentTypesMatch() {
+        assertEquals(
+                fingerprint(new Kind[]{Kind.INTEGER}, new String[]{"10"}),
+                fingerprint(new Kind[]{Kind.DECIMAL}, new String[]{"10.00"}));
+        assertNotEquals(
+                fingerprint(new Kind[]{Kind.INTEGER}, new String[]{"1"}),
+                fingerprint(new Kind[]{Kind.TEXT}, new String[]{"1"}));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bdsqltester.grading;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SqlNormalizerTest {
+
+    @Test
+    void collapsesWhitespaceAndLowercasesWords() {
+        assertEquals("select a,b from t where a=1",
+                SqlNormalizer.normalize("  SELECT a,\n\tB  FROM   T\nWHERE a=1 ;"));
+    }
+
+    @Test
+    void keepsLiteralsAndQuotedIdentifiers() {
+        assertEquals("select 'Hello  World',\"MixedCase\" from t",
+                SqlNormalizer.normalize("SELECT 'Hello  World', \"MixedCase\" FROM t"));
+        assertNotEquals(SqlNormalizer.normalize("SELECT 'A'"), SqlNormalizer.normalize("SELECT 'a'"));
+    }
+
+    @Test
+    void keepsDollarQuotedBodies() {
+        assertEquals("select $tag$ Keep -- This $tag$", SqlNormalizer.normalize("SELECT $tag$ Keep -- This $tag$"));
+    }
+
+    @Test
+    void dropsComments() {
+        assertEquals(SqlNormalizer.normalize("select a from t"),
+                SqlNormalizer.normalize("select /* kolom /* bersarang */ a */ a -- komentar\nfrom t"));
+    }
+
+    @Test
+    void keepsSpaceBetweenSeparateOperators() {
+        assertNotEquals(SqlNormalizer.normalize("select 1 > = 1"), SqlNormalizer.normalize("select 1 >= 1"));
+        assertEquals(SqlNormalizer.normalize("select a>=1"), SqlNormalizer.normalize("select a >= 1"));
+    }
+
+    @Test
+    void fingerprintIgnoresFormattingOnly() {
+        assertEquals(SqlNormalizer.fingerprint("SELECT * FROM t"), SqlNormalizer.fingerprint("select *\nfrom t;"));
+        assertNotEquals(SqlNormalizer.fingerprint("SELECT 'x'"), SqlNormalizer.fingerprint("SELECT 'X'"));
+    }
+
+    @Test
+    void topLevelDropsParenthesesAndLiterals() {
+        assertEquals("select count from t where a='' and b in ",
+                SqlNormalizer.topLevel("SELECT count(*) FROM t WHERE a = 'order by x' AND b IN (SELECT b FROM u ORDER BY b)"));
+        assertEquals("select '' from t", SqlNormalizer.topLevel("SELECT $$ (order by) $$ FROM t"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bdsqltester.grading;
+
+import com.example.bdsqltester.services.ExecutionGuard;
+import com.example.bdsqltester.services.ExecutionLimits;
+import com.example.bdsqltester.services.QueryHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionCacheTest {
+    private static final AnswerKeyCache.Key ANSWER_KEY = AnswerKeyCache.key(1, "SELECT 1");
+
+    @AfterEach
+    void clearCache() {
+        SubmissionCache.clear();
+    }
+
+    @Test
+    void equivalentSubmissionsShareAnEntry() {
+        GradingResult result = GradingResult.wrong("x");
+        SubmissionCache.put(SubmissionCache.key(ANSWER_KEY, "SELECT  *\nFROM t;"), result);
+        assertSame(result, SubmissionCache.get(SubmissionCache.key(ANSWER_KEY, "select * from t")));
+        assertNull(SubmissionCache.get(SubmissionCache.key(ANSWER_KEY, "select * from u")));
+    }
+
+    @Test
+    void entriesAreScopedToTheAnswerKey() {
+        assertNotEquals(SubmissionCache.key(ANSWER_KEY, "select 1"),
+                SubmissionCache.key(AnswerKeyCache.key(1, "SELECT 2"), "select 1"));
+        SubmissionCache.put(SubmissionCache.key(ANSWER_KEY, "select 1"), GradingResult.wrong("x"));
+        SubmissionCache.invalidate(1);
+        assertNull(SubmissionCache.get(SubmissionCache.key(ANSWER_KEY, "select 1")));
+    }
+
+    @Test
+    void volatileSubmissionsAreNotCacheable() {
+        assertTrue(SubmissionCache.isCacheable("select * from orders where created_at < '2024-01-01'"));
+        assertTrue(SubmissionCache.isCacheable("select nowhere, random_id from t"));
+        assertFalse(SubmissionCache.isCacheable("SELECT * FROM orders WHERE created_at > NOW() - interval '1 day'"));
+        assertFalse(SubmissionCache.isCacheable("select current_date"));
+        assertFalse(SubmissionCache.isCacheable("select * from t order by random() limit 1"));
+        assertFalse(SubmissionCache.isCacheable("select 'today'::date"));
+    }
+
+    @Test
+    void onlySubmissionErrorsAreGradedWrong() throws SQLException {
+        ExecutionGuard guard = new ExecutionGuard(ExecutionLimits.defaults(), new QueryHandle());
+        GradingResult syntax = GradingEngine.submissionFailed(new SQLException("syntax error", "42601"), guard);
+        assertFalse(syntax.isCorrect());
+        assertEquals(0, syntax.getGrade());
+        for (String transientState : new String[]{"08006", "40001", "40P01", "53300", "57P01", null}) {
+            SQLException e = new SQLException("transient", transientState);
+            assertSame(e, assertThrows(SQLException.class, () -> GradingEngine.submissionFailed(e, guard)));
+        }
+    }
+}
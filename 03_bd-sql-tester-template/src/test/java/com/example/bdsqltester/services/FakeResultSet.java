@@ -0,0 +1,63 @@
+package com.example.bdsqltester.services;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// ResultSet di memori untuk tes; hanya method yang dipakai ResultBuffer yang didukung
+final class FakeResultSet {
+    private FakeResultSet() {
+    }
+
+    static ResultSet of(String[] names, int[] types, String[] typeNames, Object[]... rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                FakeResultSet.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) ->
+                        switch (method.getName()) {
+                            case "getColumnCount" -> names.length;
+                            case "getColumnLabel", "getColumnName" -> names[(int) args[0] - 1];
+                            case "getColumnType" -> types[(int) args[0] - 1];
+                            case "getColumnTypeName" -> typeNames[(int) args[0] - 1];
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        });
+        int[] row = {-1};
+        Object[] last = new Object[1];
+        return (ResultSet) Proxy.newProxyInstance(
+                FakeResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++row[0] < rows.length;
+                        case "getMetaData":
+                            return metaData;
+                        case "wasNull":
+                            return last[0] == null;
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    Object value = rows[row[0]][(int) args[0] - 1];
+                    last[0] = value;
+                    return switch (method.getName()) {
+                        case "getString" -> value == null ? null : value.toString();
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble" -> value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getFloat" -> value == null ? 0.0f : ((Number) value).floatValue();
+                        case "getBoolean" -> value != null && (Boolean) value;
+                        case "getObject" -> value == null ? null : convert(value, (Class<?>) args[1]);
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == LocalDate.class && value instanceof LocalDate) {
+            return value;
+        }
+        if (type == LocalDateTime.class && value instanceof LocalDateTime) {
+            return value;
+        }
+        throw new UnsupportedOperationException(type.getName());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bdsqltester.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+
+    @Test
+    void parsesNestedValues() {
+        Object value = Json.parse(" {\"a\": [1, 2.5, -3e2], \"b\": {\"c\": null, \"d\": true}, \"e\": \"x\\\"\\u0041\\n\"} ");
+        assertEquals(Map.of("a", List.of(1.0, 2.5, -300.0),
+                "b", Json.object("c", null, "d", true),
+                "e", "x\"A\n"), value);
+    }
+
+    @Test
+    void writesAndReadsBack() {
+        Map<String, Object> object = Json.object("name", "Soal \"1\"\t\u0001", "grade", 87.5, "ok", false,
+                "items", List.of(1.0, "dua"), "none", null);
+        String text = Json.write(object);
+        assertEquals("{\"name\":\"Soal \\\"1\\\"\\t\\u0001\",\"grade\":87.5,\"ok\":false,\"items\":[1.0,\"dua\"],\"none\":null}", text);
+        assertEquals(object, Json.parse(text));
+    }
+
+    @Test
+    void writesNonFiniteNumbersAsNull() {
+        assertEquals("[null,null]", Json.write(Arrays.asList(Double.NaN, Float.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1, 2] x"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("tru"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\" 1}"));
+    }
+}
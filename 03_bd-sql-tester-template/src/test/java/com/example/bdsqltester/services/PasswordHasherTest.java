@@ -0,0 +1,52 @@
+package com.example.bdsqltester.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    @Test
+    void hashRoundTrip() {
+        String stored = PasswordHasher.hash("rahasia");
+        assertTrue(PasswordHasher.isHashed(stored));
+        assertTrue(PasswordHasher.verify("rahasia", stored));
+        assertFalse(PasswordHasher.verify("Rahasia", stored));
+        assertFalse(PasswordHasher.needsRehash(stored));
+        assertNotEquals(stored, PasswordHasher.hash("rahasia"));
+    }
+
+    @Test
+    void plaintextIsComparedAndNeedsRehash() {
+        assertTrue(PasswordHasher.verify("admin", "admin"));
+        assertFalse(PasswordHasher.verify("admin", "admin "));
+        assertTrue(PasswordHasher.needsRehash("admin"));
+    }
+
+    @Test
+    void fewerIterationsNeedRehash() {
+        String stored = PasswordHasher.hash("rahasia");
+        String weaker = PasswordHasher.PREFIX + "1000" + stored.substring(stored.indexOf('$', PasswordHasher.PREFIX.length()));
+        assertTrue(PasswordHasher.needsRehash(weaker));
+    }
+
+    @Test
+    void malformedHashesNeverThrow() {
+        String[] malformed = {
+                PasswordHasher.PREFIX,
+                PasswordHasher.PREFIX + "abc",
+                PasswordHasher.PREFIX + "abc$c2FsdA==$aGFzaA==",
+                PasswordHasher.PREFIX + "1000$not base64!$aGFzaA==",
+                PasswordHasher.PREFIX + "1000$$aGFzaA==",
+                PasswordHasher.PREFIX + "-5$c2FsdA==$aGFzaA==",
+        };
+        for (String stored : malformed) {
+            assertFalse(PasswordHasher.verify("x", stored), stored);
+        }
+        assertTrue(PasswordHasher.needsRehash(PasswordHasher.PREFIX));
+        assertTrue(PasswordHasher.needsRehash(PasswordHasher.PREFIX + "abc"));
+        assertTrue(PasswordHasher.needsRehash(PasswordHasher.PREFIX + "abc$c2FsdA==$aGFzaA=="));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bdsqltester.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlanTest {
+
+    private static String scan(String relation, String extra) {
+        return "{\"Node Type\": \"Seq Scan\", \"Relation Name\": \"" + relation + "\", \"Plan Rows\": 100" + extra + "}";
+    }
+
+    private static String nestedLoop(String inner) {
+        return "[{\"Plan\": {\"Node Type\": \"Nested Loop\", \"Total Cost\": 1520.75, \"Plan Rows\": 10000, "
+                + "\"Plans\": [" + scan("employees", "") + ", " + inner + "]}}]";
+    }
+
+    @Test
+    void readsCostRowsAndNodes() {
+        QueryPlan plan = QueryPlan.parse(nestedLoop(scan("departments", ", \"Filter\": \"(id = 1)\"")));
+        assertEquals(1520.75, plan.getTotalCost());
+        assertEquals(10000, plan.getPlanRows());
+        assertEquals(List.of("Nested Loop", "Seq Scan on employees", "Seq Scan on departments"), plan.getNodes());
+        assertTrue(plan.getWarnings().isEmpty());
+    }
+
+    @Test
+    void warnsAboutUnfilteredNestedLoop() {
+        QueryPlan plan = QueryPlan.parse(nestedLoop(scan("departments", "")));
+        assertEquals(1, plan.getWarnings().size());
+        assertTrue(plan.getWarnings().get(0).contains("employees dan departments"));
+        assertTrue(plan.summary().contains("Peringatan: kemungkinan cross join"));
+    }
+
+    @Test
+    void looksThroughMaterializeForFilters() {
+        String materialized = "{\"Node Type\": \"Materialize\", \"Plans\": ["
+                + scan("departments", ", \"Filter\": \"(id = 1)\"") + "]}";
+        assertTrue(QueryPlan.parse(nestedLoop(materialized)).getWarnings().isEmpty());
+    }
+}
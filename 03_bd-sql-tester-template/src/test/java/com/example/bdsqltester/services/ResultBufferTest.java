@@ -0,0 +1,142 @@
+package com.example.bdsqltester.services;
+
+import com.example.bdsqltester.services.ResultBuffer.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultBufferTest {
+
+    private static ResultBuffer buffer(Kind kind, String... values) {
+        ResultBuffer buffer = new ResultBuffer(new String[]{"c"}, new Kind[]{kind}, 4);
+        for (String value : values) {
+            buffer.appendRow(value);
+        }
+        return buffer;
+    }
+
+    private static void assertSame(ResultBuffer a, int rowA, ResultBuffer b, int rowB) {
+        assertTrue(a.rowEquals(rowA, b, rowB));
+        assertTrue(b.rowEquals(rowB, a, rowA));
+        assertEquals(a.rowHash(rowA), b.rowHash(rowB));
+        if (!a.isNull(rowA, 0)) {
+            assertEquals(a.cellHash(rowA, 0), b.cellHash(rowB, 0));
+        }
+    }
+
+    @Test
+    void decimalsEqualRegardlessOfScale() {
+        ResultBuffer decimals = buffer(Kind.DECIMAL, "10", "10.0", "10.00", "-0.50", "-.5");
+        assertSame(decimals, 0, decimals, 1);
+        assertSame(decimals, 1, decimals, 2);
+        assertSame(decimals, 3, decimals, 4);
+        assertSame(decimals, 2, buffer(Kind.INTEGER, "10"), 0);
+        assertFalse(decimals.rowEquals(0, decimals, 3));
+        assertEquals("10.00", decimals.getString(2, 0));
+    }
+
+    @Test
+    void floatComparesWithExactNumbersAsDouble() {
+        assertSame(buffer(Kind.FLOAT, "0.1"), 0, buffer(Kind.DECIMAL, "0.10"), 0);
+        assertSame(buffer(Kind.FLOAT, "-0.0"), 0, buffer(Kind.INTEGER, "0"), 0);
+    }
+
+    @Test
+    void decimalsTooLargeForLongFallBackToText() {
+        ResultBuffer big = buffer(Kind.DECIMAL,
+                "123456789012345678901234567890.10", "123456789012345678901234567890.1",
+                "123456789012345678901234567890.2", "NaN", "NaN");
+        assertSame(big, 0, big, 1);
+        assertFalse(big.rowEquals(0, big, 2));
+        assertSame(big, 3, big, 4);
+        assertEquals("123456789012345678901234567890.10", big.getString(0, 0));
+    }
+
+    @Test
+    void differentFamiliesNeverEqual() {
+        assertFalse(buffer(Kind.TEXT, "1").rowEquals(0, buffer(Kind.INTEGER, "1"), 0));
+        assertFalse(buffer(Kind.BOOLEAN, "t").rowEquals(0, buffer(Kind.INTEGER, "1"), 0));
+    }
+
+    @Test
+    void dateEqualsMidnightTimestamp() {
+        assertSame(buffer(Kind.DATE, "2024-02-29"), 0, buffer(Kind.TIMESTAMP, "2024-02-29 00:00:00"), 0);
+        assertFalse(buffer(Kind.DATE, "2024-02-29").rowEquals(0, buffer(Kind.TIMESTAMP, "2024-02-29 00:00:01"), 0));
+    }
+
+    @Test
+    void nullsAreTrackedPerRowPastFirstBitmapWord() {
+        ResultBuffer text = new ResultBuffer(new String[]{"c"}, new Kind[]{Kind.TEXT}, 4);
+        for (int i = 0; i < 130; i++) {
+            text.appendRow(i % 65 == 0 ? null : "");
+        }
+        assertTrue(text.isNull(0, 0));
+        assertTrue(text.isNull(65, 0));
+        assertTrue(text.isNull(130 - 1 - 64, 0));
+        assertFalse(text.isNull(64, 0));
+        assertFalse(text.isNull(129, 0));
+        assertNull(text.getString(65, 0));
+        assertEquals("", text.getString(64, 0));
+        assertFalse(text.rowEquals(0, text, 1));
+        assertSame(text, 0, text, 65);
+    }
+
+    @Test
+    void clearResetsDictionaryAndNulls() {
+        ResultBuffer text = buffer(Kind.TEXT, "a", null, "b");
+        text.clear();
+        assertEquals(0, text.size());
+        text.appendRow("b");
+        text.appendRow("c");
+        assertEquals("b", text.getString(0, 0));
+        assertEquals("c", text.getString(1, 0));
+        assertFalse(text.isNull(1, 0));
+        assertSame(text, 0, buffer(Kind.TEXT, "b"), 0);
+        assertSame(text, 1, buffer(Kind.TEXT, "x", "c"), 1);
+    }
+
+    @Test
+    void copiedRowsKeepValues() {
+        ResultBuffer source = buffer(Kind.DECIMAL, "1.50", null, "123456789012345678901234567890");
+        ResultBuffer copy = source.emptyCopy(1);
+        for (int row = 0; row < source.size(); row++) {
+            copy.appendRow(source, row);
+        }
+        for (int row = 0; row < source.size(); row++) {
+            assertSame(source, row, copy, row);
+            assertEquals(source.getString(row, 0), copy.getString(row, 0));
+        }
+    }
+
+    @Test
+    void fillReadsTypedColumnsFromResultSet() throws SQLException {
+        ResultSet rs = FakeResultSet.of(
+                new String[]{"id", "price", "active", "born", "name"},
+                new int[]{Types.INTEGER, Types.NUMERIC, Types.BIT, Types.DATE, Types.VARCHAR},
+                new String[]{"int4", "numeric", "bool", "date", "varchar"},
+                new Object[]{1, "9.90", true, LocalDate.of(2000, 1, 2), "Ani"},
+                new Object[]{null, null, null, null, null},
+                new Object[]{3, "9.9", false, LocalDate.of(2000, 1, 2), "Budi"});
+        ResultBuffer buffer = new ResultBuffer(rs.getMetaData(), 2);
+        assertEquals(2, buffer.fill(rs, 2, null));
+        assertEquals(1, buffer.fill(rs, 2, null));
+        assertEquals(Kind.BOOLEAN, buffer.getKind(2));
+        assertEquals("1", buffer.getString(0, 0));
+        assertEquals("t", buffer.getString(0, 2));
+        assertEquals("2000-01-02", buffer.getString(0, 3));
+        for (int column = 0; column < 5; column++) {
+            assertTrue(buffer.isNull(1, column));
+        }
+        assertEquals("9.90", buffer.getString(0, 1));
+        assertEquals(buffer.cellHash(0, 1), buffer.cellHash(2, 1));
+        assertFalse(buffer.rowEquals(0, buffer, 2));
+    }
+}